@@ -1,30 +1,56 @@
 package graphs;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-
 public class BFS extends Paths{
     public BFS(Graph g, int s) {
         super(g, s);
     }
 
+    public BFS(CSRGraph g, int s) {
+        super(g, s);
+    }
+
     @Override
     protected void search(Graph G, int s) {
-        // Create auxiliary queue.
-        Queue<Integer> queue = new ArrayDeque<>();
+        // Every vertex is enqueued at most once, so a plain array of size V is enough for the queue.
+        int[] queue = new int[G.V()];
+        int head = 0, tail = 0;
+
+        // Initialize the queue and mark the origin as visited.
+        queue[tail++] = s;
+        visited[s] = true;
+
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = 0; i < Graph.degree(G, current); i++) {
+                int neighbor = G.neighbor(current, i);
+                if (visited[neighbor])
+                    continue;
+                visited[neighbor] = true;
+                edgeTo[neighbor] = current;
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    @Override
+    protected void search(CSRGraph G, int s) {
+        // Every vertex is enqueued at most once, so a plain array of size V is enough for the queue.
+        int[] queue = new int[G.V()];
+        int head = 0, tail = 0;
 
         // Initialize the queue and mark the origin as visited.
-        queue.add(s);
+        queue[tail++] = s;
         visited[s] = true;
 
-        while (!queue.isEmpty()) {
-            int current = queue.remove();
-            for (Integer neighbor : G.adjacentTo(current)) {
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = G.begin(current); i < G.end(current); i++) {
+                int neighbor = G.target(i);
                 if (visited[neighbor])
                     continue;
                 visited[neighbor] = true;
                 edgeTo[neighbor] = current;
-                queue.add(neighbor);
+                queue[tail++] = neighbor;
             }
         }
     }
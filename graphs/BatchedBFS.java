@@ -0,0 +1,133 @@
+package graphs;
+
+import java.util.Arrays;
+
+// Runs up to 64 breadth-first searches at once over the same graph (multi-source BFS, Then et al., VLDB 2015).
+// Each vertex has one long per bitset: bit i tells whether search i has seen the vertex, or has it in its frontier.
+// A single scan of a frontier vertex's neighbors advances every search that has it in the frontier, so searches that
+// overlap share their memory accesses.
+// The bitsets are allocated once and reused by every batch, so repeated queries allocate nothing.
+public class BatchedBFS {
+    public static final int BATCH_SIZE = Long.SIZE;
+
+    private final CSRGraph G;
+    private final long[] seen;
+    private final long[] frontier;
+    private final long[] next;
+    // Per-search results of the last batch.
+    private final int[] reached = new int[BATCH_SIZE];
+    private final long[] distanceSum = new long[BATCH_SIZE];
+    private final int[] eccentricity = new int[BATCH_SIZE];
+
+    // Copies the graph into a CSRGraph once, so that all batches scan neighbors without boxing.
+    public BatchedBFS(Graph G) {
+        this(new CSRGraph(G));
+    }
+
+    public BatchedBFS(CSRGraph G) {
+        this.G = G;
+        seen = new long[G.V()];
+        frontier = new long[G.V()];
+        next = new long[G.V()];
+    }
+
+    // Runs one search per source, from sources[from] to sources[from + count - 1]. Search i is the one started from
+    // sources[from + i], and its results are read with the methods below until the next call.
+    public void search(int[] sources, int from, int count) {
+        if (count < 1 || count > BATCH_SIZE)
+            throw new IllegalArgumentException("A batch has between 1 and " + BATCH_SIZE + " sources");
+
+        reset();
+        for (int i = 0; i < count; i++)
+            start(sources[from + i], 1L << i);
+        run();
+    }
+
+    // Runs a single search starting from all sources at once. Its results are read as search 0.
+    public void searchFromAll(int[] sources) {
+        reset();
+        for (int s : sources)
+            start(s, 1L);
+        run();
+    }
+
+    public boolean hasPathTo(int search, int v) {
+        return (seen[v] & (1L << search)) != 0;
+    }
+
+    // Bitset of the searches that reached v.
+    public long reachedBy(int v) {
+        return seen[v];
+    }
+
+    // Number of vertices reached by a search, including its source.
+    public int reachedCount(int search) {
+        return reached[search];
+    }
+
+    // Sum of the distances from the source to every vertex it reached. Useful for closeness centrality.
+    public long distanceSum(int search) {
+        return distanceSum[search];
+    }
+
+    // Distance from the source to the farthest vertex it reached.
+    public int eccentricity(int search) {
+        return eccentricity[search];
+    }
+
+    private void reset() {
+        Arrays.fill(seen, 0);
+        Arrays.fill(frontier, 0);
+        Arrays.fill(next, 0);
+        Arrays.fill(reached, 0);
+        Arrays.fill(distanceSum, 0);
+        Arrays.fill(eccentricity, 0);
+    }
+
+    private void start(int s, long searches) {
+        // Only count the source once per search, even if it's repeated.
+        for (long bits = searches & ~seen[s]; bits != 0; bits &= bits - 1)
+            reached[Long.numberOfTrailingZeros(bits)]++;
+        seen[s] |= searches;
+        frontier[s] |= searches;
+    }
+
+    private void run() {
+        int V = G.V();
+        boolean active = true;
+
+        for (int level = 1; active; level++) {
+            // Every vertex in some frontier passes those searches on to its neighbors that haven't seen them yet.
+            for (int v = 0; v < V; v++) {
+                long searches = frontier[v];
+                if (searches == 0)
+                    continue;
+                for (int i = G.begin(v); i < G.end(v); i++) {
+                    int w = G.target(i);
+                    long discovered = searches & ~seen[w];
+                    if (discovered != 0) {
+                        next[w] |= discovered;
+                        seen[w] |= discovered;
+                    }
+                }
+            }
+
+            // The vertices discovered in this level form the next frontier, and are at distance level from the source.
+            active = false;
+            for (int v = 0; v < V; v++) {
+                long discovered = next[v];
+                frontier[v] = discovered;
+                if (discovered == 0)
+                    continue;
+                next[v] = 0;
+                active = true;
+                for (long bits = discovered; bits != 0; bits &= bits - 1) {
+                    int search = Long.numberOfTrailingZeros(bits);
+                    reached[search]++;
+                    distanceSum[search] += level;
+                    eccentricity[search] = level;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Point-to-point shortest paths with bidirectional BFS.
+// One search grows from s over the graph and another from t over the reverse graph, always expanding a full level of
+// the smaller frontier, and they stop as soon as the frontiers meet. On graphs with a large branching factor each
+// search only goes about half the distance, so a query touches a tiny fraction of what a full BFS from s would.
+// The arrays are allocated once and invalidated between queries by a stamp, so each query only pays for the vertices
+// it touches. The graph must not change after construction.
+public class BidirectionalPaths {
+    private final Graph forward;
+    private final Graph backward;
+
+    // For each side: the query stamp that marked a vertex, its distance from that side's origin, its parent in that
+    // side's search tree, and the queue of discovered vertices.
+    private final int[] markedFromS, markedFromT;
+    private final int[] distanceFromS, distanceFromT;
+    private final int[] parentFromS, parentFromT;
+    private final int[] queueFromS, queueFromT;
+    private int stamp;
+
+    // Result of the last query.
+    private int lastS = -1, lastT = -1;
+    private int meeting;
+    private int distance;
+
+    // Undirected graphs are their own reverse, and digraphs are reversed once here for all queries.
+    public BidirectionalPaths(Graph G) {
+        this(G, G instanceof Digraph ? ((Digraph) G).reverse() : G);
+    }
+
+    // Reuses a reverse digraph that was already built, e.g. shared by several instances.
+    public BidirectionalPaths(Digraph G, Digraph reverse) {
+        this((Graph) G, reverse);
+    }
+
+    private BidirectionalPaths(Graph forward, Graph backward) {
+        this.forward = forward;
+        this.backward = backward;
+        int V = forward.V();
+        markedFromS = new int[V];
+        markedFromT = new int[V];
+        distanceFromS = new int[V];
+        distanceFromT = new int[V];
+        parentFromS = new int[V];
+        parentFromT = new int[V];
+        queueFromS = new int[V];
+        queueFromT = new int[V];
+    }
+
+    public boolean hasPath(int s, int t) {
+        return distance(s, t) >= 0;
+    }
+
+    // Number of edges in a shortest path from s to t, or -1 if there is none.
+    public int distance(int s, int t) {
+        search(s, t);
+        return distance;
+    }
+
+    // A shortest path from s to t, including both, or null if there is none.
+    public Iterable<Integer> pathTo(int s, int t) {
+        search(s, t);
+        if (distance < 0)
+            return null;
+
+        List<Integer> path = new ArrayList<>(distance + 1);
+
+        // From the meeting vertex back to s, then reversed.
+        for (int v = meeting; v != s; v = parentFromS[v])
+            path.add(v);
+        path.add(s);
+        for (int i = 0, j = path.size() - 1; i < j; i++, j--)
+            path.set(i, path.set(j, path.get(i)));
+
+        // From the meeting vertex forward to t.
+        for (int v = meeting; v != t; ) {
+            v = parentFromT[v];
+            path.add(v);
+        }
+
+        return path;
+    }
+
+    private void search(int s, int t) {
+        // Consecutive questions about the same pair reuse the answer.
+        if (s == lastS && t == lastT)
+            return;
+        lastS = s;
+        lastT = t;
+
+        // Wrapping around would make stale marks look current, so clear them instead.
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(markedFromS, 0);
+            Arrays.fill(markedFromT, 0);
+            stamp = 1;
+        }
+
+        markedFromS[s] = stamp;
+        distanceFromS[s] = 0;
+        markedFromT[t] = stamp;
+        distanceFromT[t] = 0;
+        meeting = s;
+        distance = s == t ? 0 : -1;
+
+        // The current level of each side is queue[head..tail).
+        queueFromS[0] = s;
+        queueFromT[0] = t;
+        int headS = 0, tailS = 1, headT = 0, tailT = 1;
+
+        while (distance < 0 && headS < tailS && headT < tailT) {
+            if (tailS - headS <= tailT - headT) {
+                int end = tailS;
+                tailS = expand(forward, headS, end, queueFromS, markedFromS, distanceFromS, parentFromS,
+                        markedFromT, distanceFromT);
+                headS = end;
+            } else {
+                int end = tailT;
+                tailT = expand(backward, headT, end, queueFromT, markedFromT, distanceFromT, parentFromT,
+                        markedFromS, distanceFromS);
+                headT = end;
+            }
+        }
+    }
+
+    // Expands one full level of a side and returns the new tail of its queue.
+    // The first vertex seen by both sides isn't necessarily on a shortest path, so the whole level is expanded and the
+    // meeting vertex with the smallest total distance is kept.
+    private int expand(Graph G, int head, int tail, int[] queue, int[] marked, int[] distanceTo, int[] parent,
+                       int[] otherMarked, int[] otherDistanceTo) {
+        int newTail = tail;
+        int best = Integer.MAX_VALUE;
+
+        for (int q = head; q < tail; q++) {
+            int v = queue[q];
+            for (int i = 0; i < Graph.degree(G, v); i++) {
+                int w = G.neighbor(v, i);
+                if (marked[w] == stamp)
+                    continue;
+                marked[w] = stamp;
+                distanceTo[w] = distanceTo[v] + 1;
+                parent[w] = v;
+                queue[newTail++] = w;
+
+                if (otherMarked[w] == stamp && distanceTo[w] + otherDistanceTo[w] < best) {
+                    best = distanceTo[w] + otherDistanceTo[w];
+                    meeting = w;
+                }
+            }
+        }
+
+        if (best != Integer.MAX_VALUE)
+            distance = best;
+        return newTail;
+    }
+}
@@ -0,0 +1,114 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+// Minimum spanning forest with parallel Borůvka rounds.
+// In each round every component picks its cheapest outgoing edge, all picked edges join the MST at once, and the
+// components they connect are contracted. The number of components at least halves per round, so there are at most
+// log V rounds, and every step of a round is a parallel loop over edges or components.
+// Ties are broken by edge index, which makes the picked edges acyclic except for pairs of components picking the same
+// edge, so the result is the same MST that KruskalMST finds when weights are distinct.
+public class BoruvkaMST {
+    private final List<Edge> edges;
+    private double weight;
+
+    public BoruvkaMST(EdgeWeightedGraph G) {
+        int V = G.V();
+        edges = new ArrayList<>(Math.max(V - 1, 0));
+
+        // Endpoints are copied into flat arrays once and weights are read from the graph's columns, so no Edge objects
+        // are created until an edge joins the MST.
+        int E = G.E();
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int e = 0; e < E; e++) {
+            from[e] = G.either(e);
+            to[e] = G.other(e, from[e]);
+        }
+
+        // component[v] is the representative vertex of v's component, and parent links components during contraction.
+        int[] component = IntStream.range(0, V).toArray();
+        int[] parent = new int[V];
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(V);
+
+        // Edges whose endpoints are still in different components, and the components that are still roots.
+        int[] crossing = IntStream.range(0, E).filter(e -> from[e] != to[e]).toArray();
+        int[] roots = IntStream.range(0, V).toArray();
+
+        while (crossing.length > 0) {
+            // Every component picks its lightest crossing edge.
+            for (int c : roots)
+                cheapest.set(c, -1);
+            IntStream.of(crossing).parallel().forEach(e -> {
+                offer(cheapest, component[from[e]], e, G);
+                offer(cheapest, component[to[e]], e, G);
+            });
+
+            // Each component is hooked to the component at the other end of its edge. When two components picked the
+            // same edge, the larger one hooks to the smaller one, so the edge is added exactly once.
+            for (int c : roots) {
+                int e = cheapest.get(c);
+                if (e == -1) {
+                    parent[c] = c;
+                    continue;
+                }
+                int other = component[from[e]] == c ? component[to[e]] : component[from[e]];
+                if (cheapest.get(other) == e && c < other) {
+                    parent[c] = c;
+                    continue;
+                }
+                parent[c] = other;
+                edges.add(G.edge(e));
+                weight += G.weight(e);
+            }
+
+            // Pointer jumping flattens the hooked trees, so every component points straight to its new root.
+            boolean changed = true;
+            while (changed) {
+                changed = IntStream.of(roots).parallel()
+                        .map(c -> {
+                            int grandparent = parent[parent[c]];
+                            if (parent[c] == grandparent)
+                                return 0;
+                            parent[c] = grandparent;
+                            return 1;
+                        })
+                        .sum() > 0;
+            }
+
+            // Contract: relabel every vertex, then drop the edges that are now inside a component.
+            IntStream.range(0, V).parallel().forEach(v -> component[v] = parent[component[v]]);
+            roots = IntStream.of(roots).parallel().filter(c -> parent[c] == c).toArray();
+            crossing = IntStream.of(crossing).parallel()
+                    .filter(e -> component[from[e]] != component[to[e]])
+                    .toArray();
+        }
+    }
+
+    // Makes e the cheapest edge of component c if it's lighter than the current one, retrying on contention.
+    private static void offer(AtomicIntegerArray cheapest, int c, int e, EdgeWeightedGraph G) {
+        while (true) {
+            int current = cheapest.get(c);
+            if (current != -1 && !lighter(e, current, G))
+                return;
+            if (cheapest.compareAndSet(c, current, e))
+                return;
+        }
+    }
+
+    private static boolean lighter(int e, int f, EdgeWeightedGraph G) {
+        int compare = Double.compare(G.weight(e), G.weight(f));
+        return compare < 0 || compare == 0 && e < f;
+    }
+
+    public Iterable<Edge> edges() {
+        return edges;
+    }
+
+    public double weight() {
+        return weight;
+    }
+}
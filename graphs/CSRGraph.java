@@ -0,0 +1,163 @@
+package graphs;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+// Immutable graph in compressed sparse row (CSR) representation.
+// The neighbors of v are stored contiguously in targets[offsets[v]] up to targets[offsets[v + 1] - 1], so the whole
+// graph costs V + 1 ints for the offsets plus one int per adjacency entry, with no boxing and no list nodes.
+public class CSRGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final int vertices;
+    private final int edges;
+    private final boolean directed;
+
+    // Copies a Graph or a Digraph. Neighbors keep the order they have in the adjacency lists.
+    public CSRGraph(Graph G) {
+        directed = G instanceof Digraph;
+        vertices = G.V();
+        edges = G.E();
+        offsets = new int[G.V() + 1];
+
+        // The degree of each vertex gives the size of its slice of the targets array.
+        for (int v = 0; v < G.V(); v++)
+            offsets[v + 1] = offsets[v] + Graph.degree(G, v);
+
+        targets = new int[offsets[G.V()]];
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = 0; i < Graph.degree(G, v); i++)
+                targets[offsets[v] + i] = G.neighbor(v, i);
+        }
+    }
+
+    protected CSRGraph(int[] offsets, int[] targets, int edges, boolean directed) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.vertices = offsets.length - 1;
+        this.edges = edges;
+        this.directed = directed;
+    }
+
+    // For subclasses that keep the arrays somewhere else. They must override begin, end and target.
+    protected CSRGraph(int V, int edges, boolean directed) {
+        this.offsets = null;
+        this.targets = null;
+        this.vertices = V;
+        this.edges = edges;
+        this.directed = directed;
+    }
+
+    // Builds a graph from a stream of E edges given as parallel arrays: edge i goes from from[i] to to[i].
+    // The neighbor order is the same as calling addEdge on a Graph (or Digraph) with the same edges in the same order.
+    public static CSRGraph fromEdges(int V, int[] from, int[] to, int E, boolean directed) {
+        int[] offsets = new int[V + 1];
+
+        // First pass: count the degrees, shifted by one so the prefix sum turns them into offsets.
+        for (int e = 0; e < E; e++) {
+            offsets[from[e] + 1]++;
+            if (!directed)
+                offsets[to[e] + 1]++;
+        }
+        for (int v = 0; v < V; v++)
+            offsets[v + 1] += offsets[v];
+
+        // Second pass: place each endpoint at the next free position of its vertex's slice.
+        int[] next = new int[V];
+        System.arraycopy(offsets, 0, next, 0, V);
+        int[] targets = new int[offsets[V]];
+        for (int e = 0; e < E; e++) {
+            targets[next[from[e]]++] = to[e];
+            if (!directed)
+                targets[next[to[e]]++] = from[e];
+        }
+
+        return new CSRGraph(offsets, targets, E, directed);
+    }
+
+    public int V() {
+        return vertices;
+    }
+
+    public int E() {
+        return edges;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    // Number of adjacency entries: E for a digraph, and 2E for a graph since every edge is stored in both directions.
+    public int entries() {
+        return vertices == 0 ? 0 : end(vertices - 1);
+    }
+
+    public int degree(int v) {
+        return end(v) - begin(v);
+    }
+
+    // Primitive neighbor scan, free of allocation and boxing:
+    // for (int i = G.begin(v); i < G.end(v); i++) { int w = G.target(i); ... }
+    public int begin(int v) {
+        return offsets[v];
+    }
+
+    public int end(int v) {
+        return offsets[v + 1];
+    }
+
+    public int target(int i) {
+        return targets[i];
+    }
+
+    public void forEachNeighbor(int v, IntConsumer action) {
+        for (int i = begin(v); i < end(v); i++)
+            action.accept(target(i));
+    }
+
+    // Boxing view for code written against Graph. Prefer begin/end/target in hot loops.
+    public Iterable<Integer> adjacentTo(int v) {
+        return () -> new Iterator<>() {
+            private int i = begin(v);
+            private final int end = end(v);
+
+            @Override
+            public boolean hasNext() {
+                return i < end;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return target(i++);
+            }
+        };
+    }
+
+    // Returns a new graph with reversed edges. An undirected graph is its own reverse.
+    public CSRGraph reverse() {
+        if (!directed)
+            return this;
+
+        int V = V();
+        int[] reverseOffsets = new int[V + 1];
+
+        // Count the in-degrees, then turn them into offsets.
+        for (int i = 0; i < entries(); i++)
+            reverseOffsets[target(i) + 1]++;
+        for (int v = 0; v < V; v++)
+            reverseOffsets[v + 1] += reverseOffsets[v];
+
+        // Scanning sources in order keeps each reversed slice sorted by source, like Digraph.reverse().
+        int[] next = new int[V];
+        System.arraycopy(reverseOffsets, 0, next, 0, V);
+        int[] reverseTargets = new int[entries()];
+        for (int v = 0; v < V; v++)
+            for (int i = begin(v); i < end(v); i++)
+                reverseTargets[next[target(i)]++] = v;
+
+        return new CSRGraph(reverseOffsets, reverseTargets, edges, true);
+    }
+}
@@ -1,18 +1,89 @@
 package graphs;
 
+// Depth-first search with an explicit stack, so the depth of the search is limited by the heap instead of the thread
+// stack. Vertices are visited in the same order as the recursive version, which gives identical edgeTo trees.
 public class DFS extends Paths{
     public DFS(Graph g, int s) {
         super(g, s);
     }
 
+    public DFS(CSRGraph g, int s) {
+        super(g, s);
+    }
+
+    // Called when v is first visited, before any of its neighbors. Override to get a preorder traversal.
+    protected void preorder(int v) {
+    }
+
+    // Called once all neighbors of v have been explored. Override to get a postorder traversal.
+    protected void postorder(int v) {
+    }
+
+    @Override
+    protected void search(Graph G, int s) {
+        // The stack holds the current path from the source, and next[i] is the next neighbor of stack[i] to explore.
+        // This is exactly the state each recursive call would keep in its frame.
+        int[] stack = new int[G.V()];
+        int[] next = new int[G.V()];
+        int top = 0;
+
+        stack[0] = s;
+        visited[s] = true;
+        preorder(s);
+
+        while (top >= 0) {
+            int v = stack[top];
+
+            // All neighbors explored: return to the previous vertex on the path.
+            if (next[top] == Graph.degree(G, v)) {
+                postorder(v);
+                top--;
+                continue;
+            }
+
+            int neighbor = G.neighbor(v, next[top]++);
+            if (visited[neighbor])
+                continue;
+            visited[neighbor] = true;
+            edgeTo[neighbor] = v;
+            preorder(neighbor);
+
+            // Descend into the neighbor, as the recursive call would.
+            stack[++top] = neighbor;
+            next[top] = 0;
+        }
+    }
+
     @Override
-    protected void search(Graph G, int v) {
-        visited[v] = true;
-        for (Integer neighbor : G.adjacentTo(v)) {
+    protected void search(CSRGraph G, int s) {
+        // Same as above, but next[i] is a position in the targets array.
+        int[] stack = new int[G.V()];
+        int[] next = new int[G.V()];
+        int top = 0;
+
+        stack[0] = s;
+        next[0] = G.begin(s);
+        visited[s] = true;
+        preorder(s);
+
+        while (top >= 0) {
+            int v = stack[top];
+
+            if (next[top] == G.end(v)) {
+                postorder(v);
+                top--;
+                continue;
+            }
+
+            int neighbor = G.target(next[top]++);
             if (visited[neighbor])
                 continue;
+            visited[neighbor] = true;
             edgeTo[neighbor] = v;
-            search(G, neighbor);
+            preorder(neighbor);
+
+            stack[++top] = neighbor;
+            next[top] = G.begin(neighbor);
         }
     }
 }
@@ -0,0 +1,109 @@
+package graphs;
+
+import java.util.Random;
+
+// Compares the explicit-stack DFS against the original recursive one.
+// A deep graph (a long path) stresses the stack depth, and a wide graph (random, low diameter) stresses neighbor scans.
+// The recursive search runs on a thread with a large stack, since the default one overflows on the deep graph.
+// Usage: java graphs.DFSBenchmark [vertices] [repetitions]
+public class DFSBenchmark {
+    private static final long RECURSION_STACK_SIZE = 1L << 30;
+
+    // The original recursive implementation, kept as a baseline.
+    private static class RecursiveDFS extends Paths {
+        RecursiveDFS(Graph g, int s) {
+            super(g, s);
+        }
+
+        RecursiveDFS(CSRGraph g, int s) {
+            super(g, s);
+        }
+
+        @Override
+        protected void search(Graph G, int v) {
+            visited[v] = true;
+            for (int i = 0; i < Graph.degree(G, v); i++) {
+                int neighbor = G.neighbor(v, i);
+                if (visited[neighbor])
+                    continue;
+                edgeTo[neighbor] = v;
+                search(G, neighbor);
+            }
+        }
+
+        @Override
+        protected void search(CSRGraph G, int v) {
+            visited[v] = true;
+            for (int i = G.begin(v); i < G.end(v); i++) {
+                int neighbor = G.target(i);
+                if (visited[neighbor])
+                    continue;
+                edgeTo[neighbor] = v;
+                search(G, neighbor);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Graph deep = new Graph(V);
+        for (int v = 1; v < V; v++)
+            deep.addEdge(v - 1, v);
+
+        Graph wide = new Graph(V);
+        Random random = new Random(42);
+        for (int e = 0; e < 8 * V; e++)
+            wide.addEdge(random.nextInt(V), random.nextInt(V));
+
+        run("deep", deep, repetitions);
+        run("wide", wide, repetitions);
+    }
+
+    private static void run(String name, Graph G, int repetitions) throws InterruptedException {
+        CSRGraph csr = new CSRGraph(G);
+
+        // Checks the trees are identical before timing anything.
+        DFS iterative = new DFS(G, 0);
+        RecursiveDFS[] recursive = new RecursiveDFS[1];
+        onLargeStack(() -> recursive[0] = new RecursiveDFS(G, 0));
+        for (int v = 0; v < G.V(); v++)
+            if (iterative.hasPathTo(v) != recursive[0].hasPathTo(v)
+                    || iterative.hasPathTo(v) && iterative.edgeTo[v] != recursive[0].edgeTo[v])
+                throw new AssertionError("Different DFS trees at vertex " + v);
+
+        long[] times = new long[4];
+        onLargeStack(() -> {
+            for (int r = 0; r < repetitions; r++) {
+                long start = System.nanoTime();
+                new DFS(G, 0);
+                times[0] += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                new RecursiveDFS(G, 0);
+                times[1] += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                new DFS(csr, 0);
+                times[2] += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                new RecursiveDFS(csr, 0);
+                times[3] += System.nanoTime() - start;
+            }
+        });
+
+        System.out.printf("%s (V = %d, E = %d), average ms per search%n", name, G.V(), G.E());
+        System.out.printf("  Graph     iterative %8.2f   recursive %8.2f%n",
+                times[0] / 1e6 / repetitions, times[1] / 1e6 / repetitions);
+        System.out.printf("  CSRGraph  iterative %8.2f   recursive %8.2f%n",
+                times[2] / 1e6 / repetitions, times[3] / 1e6 / repetitions);
+    }
+
+    private static void onLargeStack(Runnable task) throws InterruptedException {
+        Thread thread = new Thread(null, task, "dfs-benchmark", RECURSION_STACK_SIZE);
+        thread.start();
+        thread.join();
+    }
+}
@@ -8,7 +8,7 @@ public class Digraph extends Graph {
 
     @Override
     public void addEdge(int v, int w) {
-        adjacencyLists[v].add(w);
+        add(v, w);
         edges++;
     }
 
@@ -17,8 +17,8 @@ public class Digraph extends Graph {
         Digraph reverseGraph = new Digraph(V());
 
         for (int v = 0; v < V(); v++)
-            for (Integer w : adjacentTo(v))
-                reverseGraph.addEdge(w, v);
+            for (int i = 0; i < degree(this, v); i++)
+                reverseGraph.addEdge(neighbor(v, i), v);
 
         return reverseGraph;
     }
@@ -0,0 +1,104 @@
+package graphs;
+
+import heaps.IndexedDoubleHeap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Shortest paths on an EdgeWeightedGraph with non-negative weights, with Dijkstra's algorithm.
+// The priority queue is an IndexedDoubleHeap over vertex ids, so decreasing a distance updates the vertex in place
+// instead of inserting a duplicate, and nothing is boxed. Edges are read from the graph's columns by index.
+// An instance is a reusable workspace: its arrays are allocated once, and each query only resets the vertices the
+// previous query touched, so queries on a large graph cost in proportion to the part of the graph they explore.
+public class DijkstraSP {
+    private final EdgeWeightedGraph G;
+    private final double[] distTo;
+    // Index of the last edge on the shortest path to each vertex, or -1 for the source.
+    private final int[] edgeTo;
+    private final IndexedDoubleHeap pq;
+    private final int[] touched;
+    private int touchedCount;
+    private int source = -1;
+
+    public DijkstraSP(EdgeWeightedGraph G) {
+        this.G = G;
+        distTo = new double[G.V()];
+        edgeTo = new int[G.V()];
+        pq = new IndexedDoubleHeap(G.V());
+        touched = new int[G.V()];
+        for (int v = 0; v < G.V(); v++)
+            distTo[v] = Double.POSITIVE_INFINITY;
+    }
+
+    // Computes the shortest paths from s to every vertex.
+    public void search(int s) {
+        search(s, -1);
+    }
+
+    // Computes a shortest path from s to t and returns its length, or infinity if t is unreachable.
+    // The search stops as soon as t is settled, so afterwards only the distances of settled vertices are final.
+    public double search(int s, int t) {
+        reset();
+        source = s;
+        relax(s, 0, -1);
+
+        while (!pq.isEmpty()) {
+            int v = pq.deleteMin();
+            // v is settled: no shorter path to it can be found anymore.
+            if (v == t)
+                break;
+
+            for (int i = 0; i < G.degree(v); i++) {
+                int e = G.incidentEdge(v, i);
+                if (G.weight(e) < 0)
+                    throw new IllegalArgumentException("Edge " + e + " has negative weight " + G.weight(e));
+                relax(G.other(e, v), distTo[v] + G.weight(e), e);
+            }
+        }
+
+        return t == -1 ? 0 : distTo[t];
+    }
+
+    public boolean hasPathTo(int v) {
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public double distTo(int v) {
+        return distTo[v];
+    }
+
+    // The edges of the shortest path from the last source to v, in order, or null if there is none.
+    public Iterable<Edge> pathTo(int v) {
+        if (!hasPathTo(v))
+            return null;
+
+        Deque<Edge> path = new ArrayDeque<>();
+        for (int e = edgeTo[v]; e != -1; e = edgeTo[v]) {
+            path.addFirst(G.edge(e));
+            v = G.other(e, v);
+        }
+        return path;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    // Updates the distance to w if the path through edge e is shorter.
+    private void relax(int w, double distance, int e) {
+        if (distance >= distTo[w])
+            return;
+        if (distTo[w] == Double.POSITIVE_INFINITY)
+            touched[touchedCount++] = w;
+        distTo[w] = distance;
+        edgeTo[w] = e;
+        pq.insertOrDecrease(w, distance);
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++)
+            distTo[touched[i]] = Double.POSITIVE_INFINITY;
+        touchedCount = 0;
+        pq.clear();
+    }
+}
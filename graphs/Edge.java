@@ -21,7 +21,7 @@ public class Edge implements Comparable<Edge> {
         if (this.v == v)
             return w;
         if (this.w == v)
-            return v;
+            return this.v;
         return -1;
     }
 
@@ -0,0 +1,320 @@
+package graphs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Parallel loader for text edge lists with one edge per line: "v w", or "v w weight" for weighted graphs, separated by
+// spaces, tabs or commas. Blank lines and lines starting with '#' or '%' are skipped. V is the largest id plus one,
+// and ids go up to MAX_VERTEX so that V + 1 still fits in an int.
+// The file is memory-mapped and split into chunks at line boundaries, and the chunks are parsed in parallel straight
+// from the mapped bytes, without creating a String per line. The graph is then built in two passes over the parsed
+// edges: one counting degrees and one scattering the edges into their CSR slices.
+public class EdgeListLoader {
+    // Each chunk is mapped on its own, so it must stay under the 2 GB mapping limit.
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MAX_VERTEX = Integer.MAX_VALUE - 2;
+    // Powers of ten that are exact doubles.
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+    }
+
+    private EdgeListLoader() {
+    }
+
+    // Neighbors of each vertex are sorted, so the result doesn't depend on how the work was scheduled.
+    public static CSRGraph loadGraph(Path path, boolean directed) throws IOException {
+        Chunk[] chunks = parse(path, false);
+        int V = vertices(chunks);
+        int E = Stream.of(chunks).mapToInt(chunk -> chunk.count).sum();
+
+        // First pass: count the degrees, shifted by one so the prefix sum turns them into offsets.
+        AtomicIntegerArray degrees = new AtomicIntegerArray(V + 1);
+        Stream.of(chunks).parallel().forEach(chunk -> {
+            for (int e = 0; e < chunk.count; e++) {
+                degrees.incrementAndGet(chunk.from[e] + 1);
+                if (!directed)
+                    degrees.incrementAndGet(chunk.to[e] + 1);
+            }
+        });
+        int[] offsets = new int[V + 1];
+        for (int v = 0; v < V; v++)
+            offsets[v + 1] = offsets[v] + degrees.get(v + 1);
+
+        // Second pass: every edge claims the next free position of its vertex's slice.
+        AtomicIntegerArray next = new AtomicIntegerArray(Arrays.copyOf(offsets, V));
+        int[] targets = new int[offsets[V]];
+        Stream.of(chunks).parallel().forEach(chunk -> {
+            for (int e = 0; e < chunk.count; e++) {
+                targets[next.getAndIncrement(chunk.from[e])] = chunk.to[e];
+                if (!directed)
+                    targets[next.getAndIncrement(chunk.to[e])] = chunk.from[e];
+            }
+        });
+        IntStream.range(0, V).parallel().forEach(v -> Arrays.sort(targets, offsets[v], offsets[v + 1]));
+
+        return new CSRGraph(offsets, targets, E, directed);
+    }
+
+    // Edges keep the order of the file, so edge indices match line order.
+    public static EdgeWeightedGraph loadWeighted(Path path) throws IOException {
+        Chunk[] chunks = parse(path, true);
+        int V = vertices(chunks);
+
+        // Each chunk copies its edges to its own range of the columns.
+        int[] start = new int[chunks.length + 1];
+        for (int c = 0; c < chunks.length; c++)
+            start[c + 1] = start[c] + chunks[c].count;
+        int E = start[chunks.length];
+
+        int[] from = new int[E];
+        int[] to = new int[E];
+        double[] weight = new double[E];
+        IntStream.range(0, chunks.length).parallel().forEach(c -> {
+            System.arraycopy(chunks[c].from, 0, from, start[c], chunks[c].count);
+            System.arraycopy(chunks[c].to, 0, to, start[c], chunks[c].count);
+            System.arraycopy(chunks[c].weight, 0, weight, start[c], chunks[c].count);
+        });
+
+        return new EdgeWeightedGraph(V, from, to, weight, E);
+    }
+
+    private static int vertices(Chunk[] chunks) {
+        return Stream.of(chunks).mapToInt(chunk -> chunk.maxVertex).max().orElse(-1) + 1;
+    }
+
+    private static Chunk[] parse(Path path, boolean weighted) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) Math.max(Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD,
+                    (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+
+            // Moves every boundary forward to the start of a line, so no line is split between two chunks.
+            long[] boundaries = new long[count + 1];
+            for (int c = 1; c < count; c++)
+                boundaries[c] = lineStart(channel, Math.max(boundaries[c - 1], c * (size / count)));
+            boundaries[count] = size;
+
+            Chunk[] chunks = new Chunk[count];
+            for (int c = 0; c < count; c++)
+                chunks[c] = new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, boundaries[c],
+                        boundaries[c + 1] - boundaries[c]), boundaries[c], weighted);
+
+            Stream.of(chunks).parallel().forEach(Chunk::parse);
+
+            // Chunks count their own lines, so the line of an error is only known once the chunks before it are done.
+            long line = 1;
+            for (Chunk chunk : chunks) {
+                if (chunk.failure != null)
+                    throw new IOException(chunk.failure + " at line " + (line + chunk.lines) + ", byte "
+                            + chunk.failureAt);
+                line += chunk.lines;
+            }
+            return chunks;
+        }
+    }
+
+    // Returns the position right after the first newline at or after position, or the end of the file.
+    private static long lineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0)
+            return 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        // The byte before position may itself end a line.
+        position--;
+        while (position < channel.size()) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++)
+                if (buffer.get(i) == '\n')
+                    return position + i + 1;
+            position += read;
+        }
+        return channel.size();
+    }
+
+    // A range of lines and the edges parsed from it, in growable primitive columns.
+    private static class Chunk {
+        private final MappedByteBuffer bytes;
+        private final long offset;
+        private final boolean weighted;
+        private int[] from = new int[1024];
+        private int[] to = new int[1024];
+        private double[] weight;
+        private int count;
+        private int maxVertex = -1;
+        private int position;
+        // The number of newlines parsed, and what went wrong and where, if parsing stopped early.
+        private long lines;
+        private String failure;
+        private long failureAt;
+
+        Chunk(MappedByteBuffer bytes, long offset, boolean weighted) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.weighted = weighted;
+            if (weighted)
+                weight = new double[from.length];
+        }
+
+        // Stops at the first error, and leaves it in failure.
+        void parse() {
+            try {
+                parseLines();
+            } catch (UncheckedIOException e) {
+                // failure is already set.
+            }
+        }
+
+        private void parseLines() {
+            int limit = bytes.limit();
+            while (position < limit) {
+                skipBlanks();
+                if (position == limit)
+                    break;
+
+                byte b = bytes.get(position);
+                if (b == '\n' || b == '\r' || b == '#' || b == '%') {
+                    skipLine();
+                    continue;
+                }
+
+                int v = parseVertex();
+                skipBlanks();
+                int w = parseVertex();
+                double x = 0;
+                if (weighted) {
+                    skipBlanks();
+                    x = parseWeight();
+                }
+                skipLine();
+                add(v, w, x);
+            }
+        }
+
+        private void add(int v, int w, double x) {
+            if (count == from.length) {
+                from = Arrays.copyOf(from, 2 * count);
+                to = Arrays.copyOf(to, 2 * count);
+                if (weighted)
+                    weight = Arrays.copyOf(weight, 2 * count);
+            }
+            from[count] = v;
+            to[count] = w;
+            if (weighted)
+                weight[count] = x;
+            count++;
+            maxVertex = Math.max(maxVertex, Math.max(v, w));
+        }
+
+        private int parseVertex() {
+            int start = position;
+            long value = 0;
+            while (position < bytes.limit() && isDigit(bytes.get(position))) {
+                value = 10 * value + (bytes.get(position++) - '0');
+                if (value > MAX_VERTEX)
+                    throw fail("Vertex id over " + MAX_VERTEX, start);
+            }
+            if (position == start)
+                throw malformed(start);
+            return (int) value;
+        }
+
+        // Fast path for up to 15 significant digits and small exponents, where a single multiplication or division
+        // by an exact power of ten is correctly rounded. Anything else goes through Double.parseDouble.
+        private double parseWeight() {
+            int start = position;
+            boolean negative = false;
+            if (position < bytes.limit() && (bytes.get(position) == '-' || bytes.get(position) == '+'))
+                negative = bytes.get(position++) == '-';
+
+            long mantissa = 0;
+            int digits = 0, exponent = 0;
+            boolean any = false;
+            while (position < bytes.limit() && isDigit(bytes.get(position))) {
+                mantissa = 10 * mantissa + (bytes.get(position++) - '0');
+                digits += mantissa == 0 ? 0 : 1;
+                any = true;
+            }
+            if (position < bytes.limit() && bytes.get(position) == '.') {
+                position++;
+                while (position < bytes.limit() && isDigit(bytes.get(position))) {
+                    mantissa = 10 * mantissa + (bytes.get(position++) - '0');
+                    digits += mantissa == 0 ? 0 : 1;
+                    exponent--;
+                    any = true;
+                }
+            }
+            if (!any)
+                throw malformed(start);
+            if (position < bytes.limit() && (bytes.get(position) == 'e' || bytes.get(position) == 'E'))
+                return slowWeight(start);
+
+            if (digits > 15 || exponent < -22)
+                return slowWeight(start);
+            double value = mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        private double slowWeight(int start) {
+            while (position < bytes.limit() && !isSeparator(bytes.get(position)))
+                position++;
+            byte[] text = new byte[position - start];
+            bytes.get(start, text);
+            try {
+                return Double.parseDouble(new String(text));
+            } catch (NumberFormatException e) {
+                throw malformed(start);
+            }
+        }
+
+        private void skipBlanks() {
+            while (position < bytes.limit()) {
+                byte b = bytes.get(position);
+                if (b != ' ' && b != '\t' && b != ',')
+                    return;
+                position++;
+            }
+        }
+
+        private void skipLine() {
+            while (position < bytes.limit())
+                if (bytes.get(position++) == '\n') {
+                    lines++;
+                    return;
+                }
+        }
+
+        private UncheckedIOException malformed(int at) {
+            return fail("Malformed edge", at);
+        }
+
+        // Records the error, and returns an exception to unwind the parser with.
+        private UncheckedIOException fail(String problem, int at) {
+            failure = problem;
+            failureAt = offset + at;
+            return new UncheckedIOException(new IOException(problem));
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == ',' || b == '\n' || b == '\r';
+    }
+}
@@ -1,50 +1,212 @@
 package graphs;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 // Undirected graph with weighted edges representation.
+// Edges are stored as columns: edge e connects either(e) and its other endpoint with weight(e), where e is the order in
+// which the edge was added. Edge objects are only created when the Iterable API is used, so the columnar accessors
+// below cost no allocation and 16 bytes per edge.
 public class EdgeWeightedGraph {
-    private final List<Edge>[] adjacencyList;
-    // A list of all edges is not needed, but makes it easier to iterate through all of them.
-    private final ArrayList<Edge> allEdges;
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int RESIZING_FACTOR = 2;
+
+    private final int vertices;
+    private int[] from;
+    private int[] to;
+    private double[] weight;
+    private int edges;
+
+    // Incidence lists in CSR form, built on first use and dropped whenever an edge is added. Both arrays are published
+    // together through one volatile field, so concurrent readers such as BoruvkaMST never see one without the other.
+    private volatile Incidence incidence;
 
     public EdgeWeightedGraph(int numberOfVertices) {
-        allEdges = new ArrayList<>();
-        this.adjacencyList = (LinkedList<Edge>[]) new LinkedList[numberOfVertices];
-        for (int v = 0; v < numberOfVertices; v++)
-            adjacencyList[v] = new LinkedList<>();
+        vertices = numberOfVertices;
+        from = new int[DEFAULT_CAPACITY];
+        to = new int[DEFAULT_CAPACITY];
+        weight = new double[DEFAULT_CAPACITY];
+    }
+
+    // Takes ownership of the first E entries of the columns, without copying them. Useful for bulk loading.
+    public EdgeWeightedGraph(int numberOfVertices, int[] from, int[] to, double[] weight, int E) {
+        if (E < 0 || from.length < E || to.length < E || weight.length < E)
+            throw new IllegalArgumentException("The columns must hold at least E = " + E + " edges");
+        for (int e = 0; e < E; e++)
+            if (from[e] < 0 || from[e] >= numberOfVertices || to[e] < 0 || to[e] >= numberOfVertices)
+                throw new IllegalArgumentException("Edge " + e + " connects " + from[e] + " and " + to[e]
+                        + ", which are not all between 0 and " + (numberOfVertices - 1));
+
+        vertices = numberOfVertices;
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+        edges = E;
     }
 
     public void addEdge(int v, int w, double weight) {
-        Edge edge = new Edge(v, w, weight);
-        adjacencyList[v].add(edge);
-        adjacencyList[w].add(edge);
-        allEdges.add(edge);
+        // Resizes the columns, if they lack capacity.
+        if (edges == from.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, edges * RESIZING_FACTOR);
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            this.weight = Arrays.copyOf(this.weight, capacity);
+        }
+
+        from[edges] = v;
+        to[edges] = w;
+        this.weight[edges++] = weight;
+        incidence = null;
     }
 
     public Iterable<Edge> adjacentTo(int v) {
-        return adjacencyList[v];
+        Incidence incidence = buildIncidence();
+        return edgeList(incidence.edges, incidence.offsets[v], incidence.offsets[v + 1]);
     }
 
-    // All edges in the graph with no duplicates.
+    // All edges in the graph with no duplicates, in the order they were added.
     public Iterable<Edge> edges() {
-        return allEdges;
+        return edgeList(null, 0, edges);
     }
 
     // All edges in the graph in ascending order of weight. Useful for building a MST.
     public Iterable<Edge> edgesInOrder() {
-        Collections.sort(allEdges);
-        return allEdges;
+        return edgeList(edgeIndicesInOrder(), 0, edges);
     }
 
     public int V() {
-        return adjacencyList.length;
+        return vertices;
     }
 
     public int E() {
-        return allEdges.size();
+        return edges;
+    }
+
+    // Columnar accessors. Edges are identified by their index, from 0 to E() - 1.
+
+    // Returns one vertex of edge e.
+    public int either(int e) {
+        return from[e];
+    }
+
+    // Returns the other vertex of edge e, or -1 if v is not one of its vertices.
+    public int other(int e, int v) {
+        if (from[e] == v)
+            return to[e];
+        if (to[e] == v)
+            return from[e];
+        return -1;
+    }
+
+    public double weight(int e) {
+        return weight[e];
+    }
+
+    public Edge edge(int e) {
+        return new Edge(from[e], to[e], weight[e]);
+    }
+
+    // Primitive incidence scan, free of allocation:
+    // for (int i = 0; i < G.degree(v); i++) { int e = G.incidentEdge(v, i); int w = G.other(e, v); ... }
+    public int degree(int v) {
+        Incidence incidence = buildIncidence();
+        return incidence.offsets[v + 1] - incidence.offsets[v];
+    }
+
+    public int incidentEdge(int v, int i) {
+        Incidence incidence = buildIncidence();
+        return incidence.edges[incidence.offsets[v] + i];
+    }
+
+    // Indices of all edges in ascending order of weight, with ties kept in insertion order.
+    // LSD radix sort on the bits of the weights: 8 stable passes of one byte each, in linear time and without boxing.
+    public int[] edgeIndicesInOrder() {
+        long[] keys = new long[edges];
+        for (int e = 0; e < edges; e++) {
+            // Flipping the sign bit of positives and all bits of negatives makes the bits sort like the doubles.
+            long bits = Double.doubleToLongBits(weight[e]);
+            keys[e] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        }
+
+        int[] order = new int[edges], buffer = new int[edges];
+        for (int e = 0; e < edges; e++)
+            order[e] = e;
+
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            int[] count = new int[257];
+            for (int e = 0; e < edges; e++)
+                count[(int) (keys[e] >>> shift & 0xFF) + 1]++;
+
+            // Skips the pass if every key has the same byte here, which is common for the high bytes.
+            if (edges > 0 && count[(int) (keys[0] >>> shift & 0xFF) + 1] == edges)
+                continue;
+
+            for (int b = 0; b < 256; b++)
+                count[b + 1] += count[b];
+            for (int i = 0; i < edges; i++)
+                buffer[count[(int) (keys[order[i]] >>> shift & 0xFF)]++] = order[i];
+
+            int[] temp = order;
+            order = buffer;
+            buffer = temp;
+        }
+
+        return order;
+    }
+
+    private Incidence buildIncidence() {
+        Incidence built = incidence;
+        if (built != null)
+            return built;
+
+        // Counts the edges of each vertex, shifted by one so the prefix sum turns them into offsets.
+        int[] offsets = new int[vertices + 1];
+        for (int e = 0; e < edges; e++) {
+            offsets[from[e] + 1]++;
+            offsets[to[e] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++)
+            offsets[v + 1] += offsets[v];
+
+        // Scanning the edges in order keeps each incidence list in insertion order.
+        int[] next = Arrays.copyOf(offsets, vertices);
+        int[] edgeIndices = new int[2 * edges];
+        for (int e = 0; e < edges; e++) {
+            edgeIndices[next[from[e]]++] = e;
+            edgeIndices[next[to[e]]++] = e;
+        }
+
+        // Threads racing here build equal copies, so whichever is published last is as good as any.
+        built = new Incidence(offsets, edgeIndices);
+        incidence = built;
+        return built;
+    }
+
+    // The indices of the edges touching v are edges[offsets[v]] up to edges[offsets[v + 1] - 1].
+    private static class Incidence {
+        private final int[] offsets;
+        private final int[] edges;
+
+        Incidence(int[] offsets, int[] edges) {
+            this.offsets = offsets;
+            this.edges = edges;
+        }
+    }
+
+    // Read-only view of the edges whose indices are in order[begin..end), creating the Edge objects on demand.
+    // A null order means the edges are taken by index.
+    private List<Edge> edgeList(int[] order, int begin, int end) {
+        return new AbstractList<>() {
+            @Override
+            public Edge get(int i) {
+                return edge(order == null ? begin + i : order[begin + i]);
+            }
+
+            @Override
+            public int size() {
+                return end - begin;
+            }
+        };
     }
 }
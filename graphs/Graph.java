@@ -1,28 +1,70 @@
 package graphs;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
 
 // Undirected Graph representation.
 public class Graph {
-    protected final List<Integer>[] adjacencyLists;
+    // Each adjacency list is a growable int array, so storing and scanning neighbors needs no boxing.
+    // Only the first degrees[v] entries of adjacencyLists[v] are neighbors; the rest is spare capacity.
+    protected final int[][] adjacencyLists;
+    protected final int[] degrees;
     protected int edges;
 
     public Graph(int numberOfVertices) {
-        adjacencyLists = (LinkedList<Integer>[]) new LinkedList[numberOfVertices];
+        adjacencyLists = new int[numberOfVertices][];
+        degrees = new int[numberOfVertices];
         for (int v = 0; v < numberOfVertices; v++)
-            adjacencyLists[v] = new LinkedList<>();
+            adjacencyLists[v] = new int[0];
         edges = 0;
     }
 
     public void addEdge(int v, int w) {
-        adjacencyLists[v].add(w);
-        adjacencyLists[w].add(v);
+        add(v, w);
+        add(w, v);
         edges++;
     }
 
+    // Appends w to the adjacency list of v, doubling its capacity when it's full.
+    protected void add(int v, int w) {
+        if (degrees[v] == adjacencyLists[v].length) {
+            int[] resized = new int[Math.max(2, 2 * degrees[v])];
+            System.arraycopy(adjacencyLists[v], 0, resized, 0, degrees[v]);
+            adjacencyLists[v] = resized;
+        }
+        adjacencyLists[v][degrees[v]++] = w;
+    }
+
+    // Boxing view of the neighbors. Hot loops should use neighbor() or forEachNeighbor() instead.
     public Iterable<Integer> adjacentTo(int v) {
-        return adjacencyLists[v];
+        return () -> new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < degrees[v];
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return adjacencyLists[v][i++];
+            }
+        };
+    }
+
+    // Primitive neighbor cursor, free of allocation and boxing:
+    // for (int i = 0; i < Graph.degree(G, v); i++) { int w = G.neighbor(v, i); ... }
+    public int neighbor(int v, int i) {
+        return adjacencyLists[v][i];
+    }
+
+    public void forEachNeighbor(int v, IntConsumer action) {
+        int[] neighbors = adjacencyLists[v];
+        for (int i = 0; i < degrees[v]; i++)
+            action.accept(neighbors[i]);
     }
 
     public int V() {
@@ -34,7 +76,7 @@ public class Graph {
     }
 
     public static int degree(Graph G, int v) {
-        return G.adjacencyLists[v].size();
+        return G.degrees[v];
     }
 
     public static int maxDegree(Graph G) {
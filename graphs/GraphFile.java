@@ -0,0 +1,161 @@
+package graphs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary graph file, laid out as CSR arrays so it can be memory-mapped and traversed without any parsing.
+// All values are little-endian:
+//   header   magic "CSRG", version, flags (1 = directed, 2 = weighted), V, E (long), adjacency entries (long)
+//   offsets  V + 1 ints
+//   targets  one int per adjacency entry
+//   padding  to a multiple of 8 bytes, only if weighted
+//   weights  one double per adjacency entry, only if weighted
+public class GraphFile {
+    private static final int MAGIC = 0x47525343;
+    private static final int VERSION = 1;
+    private static final int DIRECTED = 1;
+    private static final int WEIGHTED = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private GraphFile() {
+    }
+
+    public static void write(Graph G, Path path) throws IOException {
+        write(new CSRGraph(G), path);
+    }
+
+    public static void write(CSRGraph G, Path path) throws IOException {
+        try (Writer out = new Writer(path)) {
+            out.header(G.isDirected() ? DIRECTED : 0, G.V(), G.E(), G.entries());
+            for (int v = 0; v <= G.V(); v++)
+                out.putInt(v == G.V() ? G.entries() : G.begin(v));
+            for (int i = 0; i < G.entries(); i++)
+                out.putInt(G.target(i));
+        }
+    }
+
+    // Every edge is stored from both endpoints, with its weight next to each entry.
+    public static void write(EdgeWeightedGraph G, Path path) throws IOException {
+        try (Writer out = new Writer(path)) {
+            int entries = 2 * G.E();
+            out.header(WEIGHTED, G.V(), G.E(), entries);
+
+            int offset = 0;
+            for (int v = 0; v < G.V(); v++) {
+                out.putInt(offset);
+                offset += G.degree(v);
+            }
+            out.putInt(offset);
+
+            for (int v = 0; v < G.V(); v++)
+                for (int i = 0; i < G.degree(v); i++)
+                    out.putInt(G.other(G.incidentEdge(v, i), v));
+
+            out.pad();
+            for (int v = 0; v < G.V(); v++)
+                for (int i = 0; i < G.degree(v); i++)
+                    out.putDouble(G.weight(G.incidentEdge(v, i)));
+        }
+    }
+
+    // Maps a file written by one of the methods above. The mapping stays valid after the channel is closed.
+    public static MappedGraph map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException("Not a graph file: " + path);
+
+            int flags = header.getInt();
+            int V = header.getInt();
+            int E = (int) header.getLong();
+            int entries = (int) header.getLong();
+
+            long position = HEADER_BYTES;
+            IntBuffer[] offsets = MappedGraph.mapInts(channel, position, V + 1L);
+            position += 4L * (V + 1);
+            IntBuffer[] targets = MappedGraph.mapInts(channel, position, entries);
+            position += 4L * entries;
+
+            DoubleBuffer[] weights = null;
+            if ((flags & WEIGHTED) != 0)
+                weights = MappedGraph.mapDoubles(channel, (position + 7) & ~7L, entries);
+
+            return new MappedGraph(V, E, (flags & DIRECTED) != 0, offsets, targets, weights);
+        }
+    }
+
+    // Reads a file written from an EdgeWeightedGraph back into one.
+    public static EdgeWeightedGraph loadWeighted(Path path) throws IOException {
+        return map(path).toEdgeWeightedGraph();
+    }
+
+    // Buffered little-endian writer over a file channel.
+    private static class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void header(int flags, int V, long E, long entries) throws IOException {
+            putInt(MAGIC);
+            putInt(VERSION);
+            putInt(flags);
+            putInt(V);
+            putLong(E);
+            putLong(entries);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        // Aligns the next value to 8 bytes from the start of the file.
+        void pad() throws IOException {
+            while ((written + buffer.position()) % 8 != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes)
+                flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                written += channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+}
@@ -1,21 +1,29 @@
 package graphs;
 
+import heaps.DoubleHeap;
 import union_find.UnionFind;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 public class KruskalMST {
     private List<Edge> edges;
     private double weight;
 
     public KruskalMST(EdgeWeightedGraph G) {
+        this(G, false);
+    }
+
+    // The lazy mode doesn't sort the edges up front. It builds a heap out of them in linear time and pops them in
+    // order only until the MST is complete, so graphs where that happens early cost O(E + V log E) instead of O(E log E).
+    public KruskalMST(EdgeWeightedGraph G, boolean lazy) {
         edges = new ArrayList<>(G.V() - 1);
 
-        // Get all edges sorted by weight in ascending order.
-        // You could use a MinPriorityQueue for this.
-        Iterator<Edge> allEdgesInOrder = G.edgesInOrder().iterator();
+        // Get the indices of all edges in ascending order of weight, either fully sorted or lazily from a heap.
+        // Working with indices reads the graph's edge columns directly, without creating Edge objects.
+        PrimitiveIterator.OfInt allEdgesInOrder = lazy ? heapOrder(G) : Arrays.stream(G.edgeIndicesInOrder()).iterator();
 
         // Use a UnionFind auxiliary data structure to efficiently check for cycles.
         UnionFind uf = new UnionFind(G.V());
@@ -23,20 +31,47 @@ public class KruskalMST {
         // Iterate until there are V - 1 edges (MST is complete)
         while (allEdgesInOrder.hasNext() && edges.size() < G.V() - 1) {
             // Get the edge with the smallest weight.
-            Edge e = allEdgesInOrder.next();
+            int e = allEdgesInOrder.nextInt();
             // Extract the vertices.
-            int v = e.either(), w = e.other(v);
+            int v = G.either(e), w = G.other(e, v);
             // Check if the connecting them would create a cycle.
             if (!uf.connected(v, w)) {
                 // Merge the components.
                 uf.union(v,w);
                 // Add the edge to the MST and increment the weight.
-                edges.add(e);
-                weight += e.weight();
+                edges.add(G.edge(e));
+                weight += G.weight(e);
             }
         }
     }
 
+    private static PrimitiveIterator.OfInt heapOrder(EdgeWeightedGraph G) {
+        double[] weights = new double[G.E()];
+        int[] allEdges = new int[G.E()];
+        for (int e = 0; e < G.E(); e++) {
+            weights[e] = G.weight(e);
+            allEdges[e] = e;
+        }
+
+        // The array constructor heapifies bottom-up in linear time.
+        // A min heap keyed by weight, with the edge index as payload, compares primitives instead of boxed indices.
+        DoubleHeap heap = new DoubleHeap(weights, allEdges, false);
+
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !heap.isEmpty();
+            }
+
+            @Override
+            public int nextInt() {
+                int e = heap.peekPayload();
+                heap.deleteRoot();
+                return e;
+            }
+        };
+    }
+
     public Iterable<Edge> edges() {
         return edges;
     }
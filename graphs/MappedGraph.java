@@ -0,0 +1,99 @@
+package graphs;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+// CSRGraph backed by a memory-mapped GraphFile. Traversals read straight from the OS page cache, so opening a graph
+// needs no parsing and no heap, and every JVM mapping the same file shares its pages.
+// A single mapping can't exceed 2 GB, so each array is split into chunks of 2^27 values.
+public class MappedGraph extends CSRGraph {
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final IntBuffer[] offsets;
+    private final IntBuffer[] targets;
+    private final DoubleBuffer[] weights;
+
+    MappedGraph(int V, int E, boolean directed, IntBuffer[] offsets, IntBuffer[] targets, DoubleBuffer[] weights) {
+        super(V, E, directed);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int begin(int v) {
+        return offsets[v >>> CHUNK_SHIFT].get(v & CHUNK_MASK);
+    }
+
+    @Override
+    public int end(int v) {
+        return begin(v + 1);
+    }
+
+    @Override
+    public int target(int i) {
+        return targets[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    // Weight of adjacency entry i, i.e. of the edge from some v to target(i), with begin(v) <= i < end(v).
+    public double weight(int i) {
+        return weights[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+    }
+
+    // Copies a weighted undirected graph into an EdgeWeightedGraph, so it can be used by KruskalMST, BoruvkaMST or
+    // DijkstraSP. Every edge is stored from both endpoints in the file, so only the entry from its lower endpoint is
+    // kept, and every other entry of a self-loop. Edge indices follow the order of the file, not the original ones.
+    public EdgeWeightedGraph toEdgeWeightedGraph() {
+        if (!isWeighted() || isDirected())
+            throw new IllegalStateException("Only weighted undirected graphs can be copied to an EdgeWeightedGraph");
+
+        int[] from = new int[E()], to = new int[E()];
+        double[] weight = new double[E()];
+        int edges = 0;
+        for (int v = 0; v < V(); v++) {
+            boolean skipLoop = false;
+            for (int i = begin(v); i < end(v); i++) {
+                int w = target(i);
+                if (w < v)
+                    continue;
+                // A self-loop has two entries at its vertex, so every other one is skipped.
+                if (w == v && !(skipLoop = !skipLoop))
+                    continue;
+                from[edges] = v;
+                to[edges] = w;
+                weight[edges++] = weight(i);
+            }
+        }
+        return new EdgeWeightedGraph(V(), from, to, weight, edges);
+    }
+
+    static IntBuffer[] mapInts(FileChannel channel, long position, long count) throws IOException {
+        IntBuffer[] chunks = new IntBuffer[(int) ((count + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int c = 0; c < chunks.length; c++) {
+            long size = Math.min(count - ((long) c << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + ((long) c << CHUNK_SHIFT) * 4, size * 4)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        }
+        return chunks;
+    }
+
+    static DoubleBuffer[] mapDoubles(FileChannel channel, long position, long count) throws IOException {
+        DoubleBuffer[] chunks = new DoubleBuffer[(int) ((count + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int c = 0; c < chunks.length; c++) {
+            long size = Math.min(count - ((long) c << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + ((long) c << CHUNK_SHIFT) * 8, size * 8)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer();
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,144 @@
+package graphs;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Direction-optimizing, level-synchronous parallel BFS.
+// Each level is expanded either top-down (frontier vertices claim their unvisited neighbors) or bottom-up (unvisited
+// vertices look for any parent in the frontier), whichever is expected to touch fewer edges. Bottom-up pays off on
+// low-diameter graphs, where a few middle levels contain most of the vertices.
+// The visited set and the frontiers are bitsets, and every level is split into chunks run by the fork-join common pool.
+// The result is a shortest-path tree: hasPathTo and the length of pathTo agree with BFS, but when a vertex has several
+// parents in the previous level, the one picked by the parallel search may differ.
+public class ParallelBFS extends Paths {
+    // Switching thresholds suggested by Beamer, Asanovic and Patterson, "Direction-Optimizing Breadth-First Search".
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    // Number of 64-vertex words handled by each task.
+    private static final int WORDS_PER_TASK = 64;
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    public ParallelBFS(Graph g, int s) {
+        super(g, s);
+    }
+
+    public ParallelBFS(CSRGraph g, int s) {
+        super(g, s);
+    }
+
+    @Override
+    protected void search(Graph G, int s) {
+        search(new CSRGraph(G), s);
+    }
+
+    @Override
+    protected void search(CSRGraph G, int s) {
+        int V = G.V();
+        int words = (V + 63) >>> 6;
+        int tasks = (words + WORDS_PER_TASK - 1) / WORDS_PER_TASK;
+
+        // Bottom-up steps look at the edges entering a vertex. An undirected graph is its own reverse.
+        CSRGraph incoming = G.reverse();
+
+        long[] seen = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        seen[s >>> 6] |= 1L << s;
+        frontier[s >>> 6] |= 1L << s;
+
+        long frontierSize = 1;
+        long frontierEdges = G.degree(s);
+        long unexploredEdges = G.entries() - frontierEdges;
+        boolean bottomUp = false, growing = true;
+
+        while (frontierSize > 0) {
+            // Go bottom-up when the frontier has many edges compared to the unexplored part of the graph,
+            // and go back top-down once the frontier is small again and shrinking.
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && !growing && frontierSize < V / BETA)
+                bottomUp = false;
+
+            long[] currentFrontier = frontier, nextFrontier = next;
+            if (bottomUp)
+                IntStream.range(0, tasks).parallel()
+                        .forEach(task -> bottomUpStep(incoming, task, seen, currentFrontier, nextFrontier));
+            else
+                IntStream.range(0, tasks).parallel()
+                        .forEach(task -> topDownStep(G, task, seen, currentFrontier, nextFrontier));
+
+            // The next frontier becomes the current one, and the old one is recycled.
+            frontier = nextFrontier;
+            next = currentFrontier;
+            Arrays.fill(next, 0);
+
+            long[] newFrontier = frontier;
+            long previousSize = frontierSize;
+            frontierSize = IntStream.range(0, words).parallel().mapToLong(i -> Long.bitCount(newFrontier[i])).sum();
+            frontierEdges = IntStream.range(0, tasks).parallel().mapToLong(task -> edgesOf(G, task, newFrontier)).sum();
+            unexploredEdges -= frontierEdges;
+            growing = frontierSize > previousSize;
+        }
+
+        for (int v = 0; v < V; v++)
+            visited[v] = (seen[v >>> 6] & (1L << v)) != 0;
+    }
+
+    // Every frontier vertex tries to claim its unvisited neighbors. Claims are atomic, so exactly one parent wins.
+    private void topDownStep(CSRGraph G, int task, long[] seen, long[] frontier, long[] next) {
+        int last = Math.min(frontier.length, (task + 1) * WORDS_PER_TASK);
+        for (int word = task * WORDS_PER_TASK; word < last; word++) {
+            for (long bits = frontier[word]; bits != 0; bits &= bits - 1) {
+                int v = (word << 6) + Long.numberOfTrailingZeros(bits);
+                for (int i = G.begin(v); i < G.end(v); i++) {
+                    int w = G.target(i);
+                    long mask = 1L << w;
+                    // Cheap check first, so already visited neighbors don't cost an atomic operation.
+                    if (((long) BITS.getOpaque(seen, w >>> 6) & mask) != 0)
+                        continue;
+                    if (((long) BITS.getAndBitwiseOr(seen, w >>> 6, mask) & mask) != 0)
+                        continue;
+                    edgeTo[w] = v;
+                    BITS.getAndBitwiseOr(next, w >>> 6, mask);
+                }
+            }
+        }
+    }
+
+    // Every unvisited vertex looks for a parent among its incoming neighbors and stops at the first one in the
+    // frontier. Each task owns its words of seen and next, so no atomic operations are needed.
+    private void bottomUpStep(CSRGraph incoming, int task, long[] seen, long[] frontier, long[] next) {
+        int V = incoming.V();
+        int last = Math.min(seen.length, (task + 1) * WORDS_PER_TASK);
+        for (int word = task * WORDS_PER_TASK; word < last; word++) {
+            long found = 0;
+            for (long bits = ~seen[word]; bits != 0; bits &= bits - 1) {
+                int v = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (v >= V)
+                    break;
+                for (int i = incoming.begin(v); i < incoming.end(v); i++) {
+                    int u = incoming.target(i);
+                    if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                        edgeTo[v] = u;
+                        found |= 1L << v;
+                        break;
+                    }
+                }
+            }
+            seen[word] |= found;
+            next[word] = found;
+        }
+    }
+
+    // Sum of the out-degrees of the frontier vertices in one task's words.
+    private static long edgesOf(CSRGraph G, int task, long[] frontier) {
+        long edges = 0;
+        int last = Math.min(frontier.length, (task + 1) * WORDS_PER_TASK);
+        for (int word = task * WORDS_PER_TASK; word < last; word++)
+            for (long bits = frontier[word]; bits != 0; bits &= bits - 1)
+                edges += G.degree((word << 6) + Long.numberOfTrailingZeros(bits));
+        return edges;
+    }
+}
@@ -0,0 +1,291 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Strongly connected components with the parallel forward-backward algorithm (Fleischer, Hendrickson and Pinar).
+// The vertices are split into partitions, identified by a color, that no SCC crosses. For each partition:
+//  . Trimming removes every vertex with no incoming or no outgoing edge inside the partition, since it must be an SCC
+//    on its own. On most real graphs this alone settles a large share of the vertices.
+//  . From a pivot, a forward and a backward search inside the partition find FW and BW. FW ∩ BW is the pivot's SCC,
+//    and FW \ BW, BW \ FW and the unreached rest are new partitions, processed in parallel by the fork-join pool.
+//    Each partition is a range of one array of vertices, split in place. The task forks the two smaller partitions and
+//    loops on the largest, so its stack stays flat and nothing but the ranges is kept for the partitions waiting.
+//  . Small partitions are finished sequentially with TarjanSCC.
+// Component ids are assigned by whichever task finds the component first, so they differ between runs.
+public class ParallelSCC {
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+    private static final int DONE = -1;
+
+    private final CSRGraph G;
+    private final CSRGraph reverse;
+    private final int[] id;
+    private final int count;
+
+    // Every array is indexed by vertex, and concurrent tasks only write the entries of their own partition's vertices.
+    private final int[] color;
+    private final int[] inDegree, outDegree;
+    private final int[] index, low;
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public ParallelSCC(Digraph G) {
+        this(new CSRGraph(G));
+    }
+
+    public ParallelSCC(CSRGraph G) {
+        this.G = G;
+        reverse = G.reverse();
+        int V = G.V();
+        id = new int[V];
+        color = new int[V];
+        inDegree = new int[V];
+        outDegree = new int[V];
+        index = new int[V];
+        low = new int[V];
+
+        int[] vertices = new int[V];
+        for (int v = 0; v < V; v++) {
+            id[v] = -1;
+            vertices[v] = v;
+        }
+
+        ForkJoinPool.commonPool().invoke(new Partition(vertices, 0, V, 0));
+        count = nextId.get();
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int id(int v) {
+        return id[v];
+    }
+
+    public boolean stronglyConnected(int v, int w) {
+        return id[v] == id[w];
+    }
+
+    private class Partition extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Every partition is a range of the same array. The task moves on to the largest partition it splits into, so
+        // the range and color change as it goes.
+        private final int[] vertices;
+        private int from;
+        private int n;
+        private int c;
+
+        Partition(int[] vertices, int from, int n, int c) {
+            this.vertices = vertices;
+            this.from = from;
+            this.n = n;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            List<Partition> forked = new ArrayList<>();
+            while (true) {
+                int remaining = trim();
+                if (remaining == 0)
+                    break;
+
+                if (remaining <= SEQUENTIAL_THRESHOLD) {
+                    int components = TarjanSCC.search(G, vertices, from, from + remaining, color, c, id, index, low,
+                            0);
+                    // Reserves a contiguous range of ids and shifts the local ones into it.
+                    int first = nextId.getAndAdd(components);
+                    for (int i = from; i < from + remaining; i++)
+                        id[vertices[i]] += first;
+                    break;
+                }
+
+                // Forward search from the pivot recolors what it reaches, then the backward search splits that into
+                // the pivot's SCC and FW \ BW, and recolors what it reaches of the rest as BW \ FW.
+                // A random pivot splits a chain of SCCs near its middle on average, where the first vertex could peel
+                // them off one at a time, each step searching the whole rest of the chain.
+                int pivot = vertices[from + ThreadLocalRandom.current().nextInt(remaining)];
+                int forward = nextColor.getAndIncrement();
+                int backward = nextColor.getAndIncrement();
+                int[] queue = new int[remaining];
+                search(G, pivot, c, forward, queue);
+                int scc = nextId.getAndIncrement();
+                backwardSearch(pivot, forward, backward, scc, queue);
+
+                // Drops the pivot's SCC, then splits the rest in place into FW \ BW, BW \ FW and the unreached
+                // vertices, in this order.
+                int end = from;
+                for (int i = from; i < from + remaining; i++)
+                    if (color[vertices[i]] != DONE)
+                        vertices[end++] = vertices[i];
+                int fwEnd = from, bwEnd = end;
+                for (int i = from; i < bwEnd; ) {
+                    int v = vertices[i];
+                    if (color[v] == forward)
+                        swap(i++, fwEnd++);
+                    else if (color[v] == c)
+                        swap(i, --bwEnd);
+                    else
+                        i++;
+                }
+
+                // Forks the two smaller partitions, each at most half of the vertices, and keeps going with the
+                // largest, so a long chain of SCCs is a loop rather than a recursion.
+                Partition[] parts = {
+                        new Partition(vertices, from, fwEnd - from, forward),
+                        new Partition(vertices, fwEnd, bwEnd - fwEnd, backward),
+                        new Partition(vertices, bwEnd, end - bwEnd, c)
+                };
+                int largest = 0;
+                for (int i = 1; i < parts.length; i++)
+                    if (parts[i].n > parts[largest].n)
+                        largest = i;
+                for (int i = 0; i < parts.length; i++)
+                    if (i != largest && parts[i].n > 0) {
+                        parts[i].fork();
+                        forked.add(parts[i]);
+                    }
+                from = parts[largest].from;
+                n = parts[largest].n;
+                c = parts[largest].c;
+            }
+
+            for (Partition partition : forked)
+                partition.join();
+        }
+
+        private void swap(int i, int j) {
+            int v = vertices[i];
+            vertices[i] = vertices[j];
+            vertices[j] = v;
+        }
+
+        // Removes vertices with no in- or out-neighbor in the partition, which are SCCs on their own. Removing one can
+        // make its neighbors trimmable too, so they go through a worklist. Surviving vertices are moved to the front of
+        // the range, and their number is returned.
+        private int trim() {
+            int[] worklist = new int[n];
+            int size = 0;
+
+            for (int i = from; i < from + n; i++) {
+                int v = vertices[i];
+                inDegree[v] = degreeInPartition(reverse, v);
+                outDegree[v] = degreeInPartition(G, v);
+            }
+            for (int i = from; i < from + n; i++) {
+                int v = vertices[i];
+                if (inDegree[v] == 0 || outDegree[v] == 0) {
+                    color[v] = DONE;
+                    worklist[size++] = v;
+                }
+            }
+
+            for (int head = 0; head < size; head++) {
+                int v = worklist[head];
+                size = release(G, v, inDegree, worklist, size);
+                size = release(reverse, v, outDegree, worklist, size);
+            }
+
+            // Reserves a contiguous range of ids for the trimmed vertices, instead of contending for one at a time.
+            int first = nextId.getAndAdd(size);
+            for (int i = 0; i < size; i++)
+                id[worklist[i]] = first + i;
+
+            int remaining = 0;
+            for (int i = from; i < from + n; i++)
+                if (color[vertices[i]] == c)
+                    vertices[from + remaining++] = vertices[i];
+            return remaining;
+        }
+
+        private int degreeInPartition(CSRGraph H, int v) {
+            int degree = 0;
+            for (int i = H.begin(v); i < H.end(v); i++)
+                if (color[H.target(i)] == c && H.target(i) != v)
+                    degree++;
+            return degree;
+        }
+
+        // A trimmed vertex no longer counts towards its neighbors' degrees.
+        private int release(CSRGraph H, int v, int[] degree, int[] worklist, int size) {
+            for (int i = H.begin(v); i < H.end(v); i++) {
+                int w = H.target(i);
+                if (color[w] == c && w != v && --degree[w] == 0) {
+                    color[w] = DONE;
+                    worklist[size++] = w;
+                }
+            }
+            return size;
+        }
+
+        // BFS over H from s through vertices colored from, recoloring them to to.
+        private void search(CSRGraph H, int s, int from, int to, int[] queue) {
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            color[s] = to;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = H.begin(v); i < H.end(v); i++) {
+                    int w = H.target(i);
+                    if (color[w] == from) {
+                        color[w] = to;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+
+        // BFS over the reverse graph from the pivot. Vertices also reached forward are in the pivot's SCC, and the
+        // others still in the partition are colored backward.
+        private void backwardSearch(int pivot, int forward, int backward, int scc, int[] queue) {
+            int head = 0, tail = 0;
+            queue[tail++] = pivot;
+            color[pivot] = DONE;
+            id[pivot] = scc;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = reverse.begin(v); i < reverse.end(v); i++) {
+                    int w = reverse.target(i);
+                    if (color[w] == forward) {
+                        color[w] = DONE;
+                        id[w] = scc;
+                        queue[tail++] = w;
+                    } else if (color[w] == c) {
+                        color[w] = backward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        // A chain of two-cycles, each linked to the next, peels off one SCC per step.
+        int cycles = 100_000;
+        Digraph G = new Digraph(2 * cycles);
+        for (int i = 0; i < cycles; i++) {
+            G.addEdge(2 * i, 2 * i + 1);
+            G.addEdge(2 * i + 1, 2 * i);
+            if (i + 1 < cycles)
+                G.addEdge(2 * i + 1, 2 * i + 2);
+        }
+
+        ParallelSCC scc = new ParallelSCC(G);
+        assert scc.count() == cycles;
+        for (int i = 0; i < cycles; i++) {
+            assert scc.stronglyConnected(2 * i, 2 * i + 1);
+            assert i + 1 == cycles || !scc.stronglyConnected(2 * i, 2 * i + 2);
+        }
+
+        // Closing the chain into a ring makes it a single SCC.
+        G.addEdge(2 * cycles - 1, 0);
+        scc = new ParallelSCC(G);
+        assert scc.count() == 1;
+    }
+}
@@ -13,6 +13,14 @@ public abstract class Paths {
         edgeTo = new int[graph.V()];
         search(graph, source);
     }
+
+    public Paths(CSRGraph graph, int source) {
+        this.source = source;
+        visited = new boolean[graph.V()];
+        edgeTo = new int[graph.V()];
+        search(graph, source);
+    }
+
     public boolean hasPathTo(int v) {
         return visited[v];
     }
@@ -33,4 +41,6 @@ public abstract class Paths {
     }
 
     protected abstract void search(Graph G, int s);
+
+    protected abstract void search(CSRGraph G, int s);
 }
@@ -0,0 +1,105 @@
+package graphs;
+
+// Strongly connected components of a digraph with Tarjan's algorithm, driven by an explicit stack instead of recursion
+// so graphs with tens of millions of vertices don't overflow the thread stack.
+// Components are numbered in reverse topological order of the condensation: if there's an edge from component a to
+// component b, with a != b, then id(a) > id(b).
+public class TarjanSCC {
+    private final int[] id;
+    private final int count;
+
+    public TarjanSCC(Digraph G) {
+        this(new CSRGraph(G));
+    }
+
+    public TarjanSCC(CSRGraph G) {
+        int V = G.V();
+        id = new int[V];
+        int[] vertices = new int[V];
+        for (int v = 0; v < V; v++) {
+            id[v] = -1;
+            vertices[v] = v;
+        }
+        count = search(G, vertices, 0, V, null, 0, id, new int[V], new int[V], 0);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int id(int v) {
+        return id[v];
+    }
+
+    public boolean stronglyConnected(int v, int w) {
+        return id[v] == id[w];
+    }
+
+    // Runs Tarjan's algorithm from every unvisited vertex in vertices[from..to), only following edges to vertices whose
+    // color is c (or every edge, if color is null). Components are numbered from firstId, and the number of components
+    // found is returned. Visited vertices must have index 0 and component -1 beforehand.
+    // The arrays are indexed by vertex, so concurrent calls on disjoint sets of vertices can share them.
+    static int search(CSRGraph G, int[] vertices, int from, int to, int[] color, int c, int[] component, int[] index,
+                      int[] low, int firstId) {
+        int n = to - from;
+        // Tarjan's stack of vertices not yet assigned to a component, and the DFS call stack with each frame's cursor.
+        // A visited vertex without a component is always on Tarjan's stack, so no separate flag is needed.
+        int[] stack = new int[n];
+        int[] callStack = new int[n];
+        int[] next = new int[n];
+        int stackSize = 0, top = -1;
+        int counter = 0, components = 0;
+
+        for (int r = from; r < to; r++) {
+            int root = vertices[r];
+            if (index[root] != 0)
+                continue;
+
+            // Visit the root.
+            index[root] = low[root] = ++counter;
+            stack[stackSize++] = root;
+            callStack[++top] = root;
+            next[top] = G.begin(root);
+
+            while (top >= 0) {
+                int v = callStack[top];
+
+                if (next[top] < G.end(v)) {
+                    int w = G.target(next[top]++);
+                    if (color != null && color[w] != c)
+                        continue;
+                    if (index[w] == 0) {
+                        // Tree edge: descend into w, as the recursive call would.
+                        index[w] = low[w] = ++counter;
+                        stack[stackSize++] = w;
+                        callStack[++top] = w;
+                        next[top] = G.begin(w);
+                    } else if (component[w] < 0) {
+                        // Back or cross edge to a vertex still on the stack.
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                // All edges of v explored. If v is the root of a component, pop the whole component off the stack.
+                top--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        component[w] = firstId + components;
+                    } while (w != v);
+                    components++;
+                }
+
+                // Returning to the parent propagates the lowest reachable index.
+                if (top >= 0) {
+                    int parent = callStack[top];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+
+        return components;
+    }
+}
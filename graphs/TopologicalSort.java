@@ -0,0 +1,58 @@
+package graphs;
+
+import java.util.Arrays;
+
+// Topological order of a digraph with Kahn's algorithm: repeatedly remove a vertex with no incoming edges.
+// It only uses a queue of vertices and an array of in-degrees, so it works on arbitrarily deep graphs. If some
+// vertices are never removed, they are on or behind a cycle, and there is no topological order.
+public class TopologicalSort {
+    private final int[] order;
+    private final int[] rank;
+    private final boolean hasOrder;
+
+    public TopologicalSort(Digraph G) {
+        this(new CSRGraph(G));
+    }
+
+    public TopologicalSort(CSRGraph G) {
+        int V = G.V();
+        int[] inDegree = new int[V];
+        for (int i = 0; i < G.entries(); i++)
+            inDegree[G.target(i)]++;
+
+        // The order itself is the queue: sources are appended, and removed vertices are never overwritten.
+        int[] queue = new int[V];
+        int head = 0, tail = 0;
+        for (int v = 0; v < V; v++)
+            if (inDegree[v] == 0)
+                queue[tail++] = v;
+
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = G.begin(v); i < G.end(v); i++)
+                if (--inDegree[G.target(i)] == 0)
+                    queue[tail++] = G.target(i);
+        }
+
+        hasOrder = tail == V;
+        order = hasOrder ? queue : null;
+        rank = new int[V];
+        if (hasOrder)
+            for (int i = 0; i < V; i++)
+                rank[order[i]] = i;
+    }
+
+    public boolean hasOrder() {
+        return hasOrder;
+    }
+
+    // The vertices in topological order, or null if the digraph has a cycle.
+    public Iterable<Integer> order() {
+        return hasOrder ? () -> Arrays.stream(order).iterator() : null;
+    }
+
+    // Position of v in the topological order, or -1 if the digraph has a cycle.
+    public int rank(int v) {
+        return hasOrder ? rank[v] : -1;
+    }
+}
@@ -10,43 +10,64 @@ public class BinaryHeap  <E extends Comparable<E>> {
     private final int RESIZING_FACTOR = 2;
     private E[] heap;
     private int size;
+    // Number of children of each node.
+    private final int arity;
+    // Position of the root in the array. Everything before it is unused.
+    private final int root;
     private final Comparator<E> comparator;
 
     // Creating a heap adding n elements, one at a time, has n log n time complexity.
     public BinaryHeap (Comparator<E> comparator) {
-        heap = (E[]) new Comparable[DEFAULT_CAPACITY];
+        this(2, false, comparator);
+    }
+
+    // A heap with arity children per node. Wider nodes make the heap shallower, so deleting the root crosses fewer levels,
+    // and each level is a likely cache miss once the heap outgrows the cache, at the price of more comparisons per level.
+    // The aligned layout leaves arity - 1 unused slots before the root, so that the children of every node start at a
+    // multiple of arity. Siblings, which sink compares together, then never straddle two blocks of arity references:
+    // with compressed references and an arity of 16, a block is a 64-byte cache line relative to the array's start.
+    // The JVM doesn't align arrays to cache lines, so this is the closest a Java array can get to a B-heap layout.
+    public BinaryHeap (int arity, boolean aligned, Comparator<E> comparator) {
+        this.arity = checkArity(arity);
+        root = aligned ? arity - 1 : 1;
+        heap = (E[]) new Comparable[root + DEFAULT_CAPACITY];
         size = 0;
-        heap[0] = null;
         this.comparator = comparator;
     }
 
     // Creating a heap out of an array is more efficient, with only linear time complexity.
     public BinaryHeap (E[] array, Comparator<E> comparator) {
+        this(array, 2, false, comparator);
+    }
+
+    public BinaryHeap (E[] array, int arity, boolean aligned, Comparator<E> comparator) {
+        this.arity = checkArity(arity);
+        root = aligned ? arity - 1 : 1;
         size = array.length;
         // Creates the heap with capacity for the entire array.
         // If insert operations are expected, then 2 * size is better.
-        heap = (E[]) new Comparable[size + 1];
-        System.arraycopy(array, 0, heap, 1, size);
-        heap[0] = null;
+        heap = (E[]) new Comparable[root + size];
+        System.arraycopy(array, 0, heap, root, size);
         this.comparator = comparator;
 
         // Starting from the parent of the last element, going through all parents, perform sink operations.
         // This ensures no element is greater than its children.
-        for (int i = size / 2; i >= 1; i--)
-            sink(i);
+        if (size > 1)
+            for (int i = parent(root + size - 1); i >= root; i--)
+                sink(i);
     }
 
     // Inserts an element and maintains the heap invariant.
     public void insert(E e) {
         // Resizes the array, if it lacks capacity.
-        if (size + 1 == heap.length)
-            resize(size * RESIZING_FACTOR);
+        if (root + size == heap.length)
+            resize(heap.length * RESIZING_FACTOR);
 
         // Inserts the element at the end of the heap.
-        heap[++size] = e;
+        heap[root + size] = e;
 
         // Swims the element up to maintain the heap invariant.
-        swim(size);
+        swim(root + size++);
     }
 
     // Removes the first element of the heap and returns it, maintaining the heap invariant. Resizes the heap if it's sparse.
@@ -55,24 +76,7 @@ public class BinaryHeap  <E extends Comparable<E>> {
         if (isEmpty())
             throw new NoSuchElementException();
 
-        // Stores the element.
-        E max = heap[1];
-
-        // Puts the last element of the heap in the first place.
-        swap(1, size);
-
-        // Removes the max element.
-        heap[size--] = null;
-
-        // Sinks the former element to maintain the heap invariant.
-        sink(1);
-
-        // Resizes the array if it's less than 25% full.
-        if (4 * size < heap.length && size > 1)
-            resize(size * RESIZING_FACTOR);
-
-        // Returns the max element.
-        return max;
+        return removeAt(root);
     }
 
     // Returns the max element without removing it.
@@ -81,7 +85,7 @@ public class BinaryHeap  <E extends Comparable<E>> {
         if (isEmpty())
             throw new NoSuchElementException();
 
-        return heap[1];
+        return heap[root];
     }
 
     public boolean isEmpty() {
@@ -92,42 +96,89 @@ public class BinaryHeap  <E extends Comparable<E>> {
         return size;
     }
 
-    // Ensures an element is either smaller than its parent, or it is the root.
-    private void swim(int index) {
-        int parentIndex = index / 2;
+    // Removes the element at an index of the heap and returns it, maintaining the heap invariant.
+    protected E removeAt(int index) {
+        // Stores the element.
+        E removed = heap[index];
 
-        while (parentIndex > 0 && compareTo(parentIndex, index)) {
-            swap(index, parentIndex);
-            index = parentIndex;
-            parentIndex /= 2;
+        // Puts the last element of the heap in its place.
+        swap(index, root + size - 1);
+
+        // Removes the element.
+        heap[root + --size] = null;
+
+        // The former last element may belong above or below its new place, and only one of these moves it.
+        if (index < root + size) {
+            sink(index);
+            swim(index);
         }
+
+        // Resizes the array if it's less than 25% full.
+        if (4 * size < heap.length && size > 1)
+            resize(root + size * RESIZING_FACTOR);
+
+        return removed;
     }
 
-    // Ensures an element is greater than its children, or it is a leaf.
-    private void sink(int index) {
-        // Gets the left child of the node.
-        int child = 2 * index;
+    // Position of the root in the array, where the positions used by the protected methods start.
+    protected int root() {
+        return root;
+    }
 
-        while (child <= size) {
-            // Gets the greater of the two children, or the left if they're the same.
-            if (child < size && compareTo(child, child + 1))
-                child++;
+    protected E elementAt(int index) {
+        return heap[index];
+    }
+
+    // Replaces the element at an index without restoring the heap invariant, which is up to the caller.
+    protected void setElementAt(int index, E e) {
+        heap[index] = e;
+    }
+
+    // Ensures an element is either smaller than its parent, or it is the root.
+    protected void swim(int index) {
+        while (index > root && compareTo(parent(index), index)) {
+            swap(index, parent(index));
+            index = parent(index);
+        }
+    }
 
-            // Stops when both children are smaller than the element.
-            if (!compareTo(index, child))
+    // Ensures an element is greater than its children, or it is a leaf.
+    protected void sink(int index) {
+        // Gets the first child of the node.
+        int child = firstChild(index);
+        int last = root + size - 1;
+
+        while (child <= last) {
+            // Gets the greater of the children, or the leftmost if they're the same.
+            int best = child;
+            for (int sibling = child + 1; sibling < child + arity && sibling <= last; sibling++)
+                if (compareTo(best, sibling))
+                    best = sibling;
+
+            // Stops when all children are smaller than the element.
+            if (!compareTo(index, best))
                 break;
 
-            swap(index, child);
+            swap(index, best);
 
             // Now the element occupies the child's node in the tree.
-            index = child;
+            index = best;
 
-            // Updates to the current node's left child.
-            child *= 2;
+            // Updates to the current node's first child.
+            child = firstChild(index);
         }
     }
 
-    private void swap(int i, int j) {
+    private int parent(int index) {
+        return root + (index - root - 1) / arity;
+    }
+
+    private int firstChild(int index) {
+        return root + (index - root) * arity + 1;
+    }
+
+    // Every move of an element goes through here, so subclasses can track where elements are.
+    protected void swap(int i, int j) {
         E temp = heap[i];
         heap[i] = heap[j];
         heap[j] = temp;
@@ -139,10 +190,16 @@ public class BinaryHeap  <E extends Comparable<E>> {
 
     private void resize(int capacity) {
         E[] newHeap = (E[]) new Comparable[capacity];
-        System.arraycopy(heap, 0, newHeap, 0, size + 1);
+        System.arraycopy(heap, 0, newHeap, 0, root + size);
         heap = newHeap;
     }
 
+    private static int checkArity(int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("Arity must be at least 2, got " + arity);
+        return arity;
+    }
+
     // Tests for correctness.
     public static void main(String[] args) {
         /** Testing MaxHeap comparator implementation. */
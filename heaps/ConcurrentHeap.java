@@ -0,0 +1,259 @@
+package heaps;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A priority queue for many producer and consumer threads, with the insert, deleteRoot and peek of BinaryHeap.
+// Like BinaryHeap, the root is the greatest element under the comparator. There are two modes:
+//  . Relaxed, a MultiQueue (Rihani, Sanders and Dementiev, SPAA 2015): the elements are spread over several
+//    BinaryHeaps, each behind its own lock. insert goes to a random heap, and deleteRoot looks at the roots of two
+//    random heaps and takes the greater one. Threads rarely meet on the same lock, so throughput grows with the number
+//    of threads, but deleteRoot returns an element close to the root rather than the root itself: with k heaps, its
+//    expected rank is O(k).
+//  . Strict, a lock-free skip list: deleteRoot always returns the root, and elements that compare equal come out in
+//    insertion order. It scales less, since all threads contend for the head of the list.
+public class ConcurrentHeap<E extends Comparable<E>> {
+    private static final int HEAPS_PER_THREAD = 2;
+
+    private final Comparator<E> comparator;
+    private final boolean strict;
+    private final LongAdder size = new LongAdder();
+
+    // Relaxed mode: the heaps, their locks, and the root of each heap, or null if it's empty, readable without locking.
+    private final List<BinaryHeap<E>> heaps;
+    private final ReentrantLock[] locks;
+    private final AtomicReferenceArray<E> roots;
+
+    // Strict mode: the elements, greatest first, tagged with a sequence number so that equal elements are kept apart.
+    private final ConcurrentSkipListSet<Entry<E>> entries;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // A relaxed heap with two heaps per available processor.
+    public ConcurrentHeap(Comparator<E> comparator) {
+        this(comparator, false);
+    }
+
+    public ConcurrentHeap(Comparator<E> comparator, boolean strict) {
+        this(comparator, strict, HEAPS_PER_THREAD * Runtime.getRuntime().availableProcessors());
+    }
+
+    // More heaps mean less contention but a looser order. The number of heaps is ignored in strict mode.
+    public ConcurrentHeap(Comparator<E> comparator, boolean strict, int numberOfHeaps) {
+        this.comparator = comparator;
+        this.strict = strict;
+
+        if (strict) {
+            heaps = null;
+            locks = null;
+            roots = null;
+            entries = new ConcurrentSkipListSet<>((a, b) -> {
+                int compare = comparator.compare(b.element, a.element);
+                return compare != 0 ? compare : Long.compare(a.sequence, b.sequence);
+            });
+            return;
+        }
+
+        if (numberOfHeaps < 2)
+            throw new IllegalArgumentException("A relaxed heap needs at least 2 heaps, got " + numberOfHeaps);
+        heaps = new ArrayList<>(numberOfHeaps);
+        locks = new ReentrantLock[numberOfHeaps];
+        for (int i = 0; i < numberOfHeaps; i++) {
+            heaps.add(new BinaryHeap<>(comparator));
+            locks[i] = new ReentrantLock();
+        }
+        roots = new AtomicReferenceArray<>(numberOfHeaps);
+        entries = null;
+    }
+
+    public void insert(E e) {
+        if (strict) {
+            entries.add(new Entry<>(e, sequence.getAndIncrement()));
+            size.increment();
+            return;
+        }
+
+        // Tries random heaps until one isn't locked.
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(heaps.size());
+            if (!locks[i].tryLock())
+                continue;
+            try {
+                BinaryHeap<E> heap = heaps.get(i);
+                heap.insert(e);
+                roots.set(i, heap.peek());
+                size.increment();
+                return;
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    // Removes the root and returns it, or in relaxed mode an element close to it.
+    public E deleteRoot() {
+        if (strict) {
+            Entry<E> first = entries.pollFirst();
+            if (first == null)
+                throw new NoSuchElementException();
+            size.decrement();
+            return first.element;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            // Picks the heap with the greater root out of two random ones.
+            int i = random.nextInt(heaps.size()), j = random.nextInt(heaps.size());
+            E a = roots.get(i), b = roots.get(j);
+            if (a == null && b == null) {
+                // Both look empty, which is likely when the whole queue is nearly empty. The count is decremented
+                // after the root is cleared, so if it's 0, every heap is empty and there is nothing to lock.
+                if (size.sum() > 0)
+                    continue;
+                throw new NoSuchElementException();
+            }
+            int k = b == null || a != null && comparator.compare(a, b) >= 0 ? i : j;
+
+            if (!locks[k].tryLock())
+                continue;
+            try {
+                // The heap may have been emptied since its root was read.
+                if (heaps.get(k).isEmpty())
+                    continue;
+                return deleteRoot(k);
+            } finally {
+                locks[k].unlock();
+            }
+        }
+    }
+
+    // Returns the root without removing it, or in relaxed mode the greatest of the heaps' roots as of the call, which
+    // another thread may remove at any time.
+    public E peek() {
+        if (strict) {
+            Entry<E> first = firstOrNull();
+            if (first == null)
+                throw new NoSuchElementException();
+            return first.element;
+        }
+
+        E best = null;
+        for (int i = 0; i < heaps.size(); i++) {
+            E root = roots.get(i);
+            if (root != null && (best == null || comparator.compare(root, best) > 0))
+                best = root;
+        }
+        if (best == null)
+            throw new NoSuchElementException();
+        return best;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // The number of elements, exact when no other thread is changing the queue.
+    public long size() {
+        return size.sum();
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    // Must hold the lock of heap k.
+    private E deleteRoot(int k) {
+        BinaryHeap<E> heap = heaps.get(k);
+        E root = heap.deleteRoot();
+        roots.set(k, heap.isEmpty() ? null : heap.peek());
+        size.decrement();
+        return root;
+    }
+
+    // The skip list may be emptied between checking and reading its first entry, so this doesn't check.
+    private Entry<E> firstOrNull() {
+        try {
+            return entries.first();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private static class Entry<E> {
+        private final E element;
+        private final long sequence;
+
+        Entry(E element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        Comparator<Integer> minComparator = Comparator.reverseOrder();
+
+        // The strict mode is a plain min heap here.
+        ConcurrentHeap<Integer> strictHeap = new ConcurrentHeap<>(minComparator, true);
+        for (int i = 9; i >= 0; i--)
+            strictHeap.insert(i);
+
+        // Expected: 0 1 2 3 4 5 6 7 8 9.
+        for (int i = 0; i < 10; i++) {
+            assert strictHeap.peek() == i;
+            assert strictHeap.deleteRoot() == i;
+        }
+        assert strictHeap.isEmpty();
+
+        // In relaxed mode, producers and consumers running at once still get every element out exactly once.
+        ConcurrentHeap<Integer> relaxedHeap = new ConcurrentHeap<>(minComparator, false, 8);
+        int perThread = 10_000;
+        boolean[] seen = new boolean[4 * perThread];
+        // A failed assert in a thread surfaces from its Future, and fails main.
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>(8);
+        for (int t = 0; t < 4; t++) {
+            int offset = t * perThread;
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++)
+                    relaxedHeap.insert(offset + i);
+            }));
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; ) {
+                    try {
+                        int e = relaxedHeap.deleteRoot();
+                        synchronized (seen) {
+                            assert !seen[e];
+                            seen[e] = true;
+                        }
+                        i++;
+                    } catch (NoSuchElementException e) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> result : results)
+                result.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assert relaxedHeap.isEmpty();
+        for (boolean s : seen)
+            assert s;
+    }
+}
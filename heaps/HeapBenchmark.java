@@ -0,0 +1,88 @@
+package heaps;
+
+import java.util.Random;
+
+// Compares the layouts of MinHeap on the operations of a timer queue, for heaps from 1K elements to as many as fit:
+//  . insert: builds the heap one element at a time.
+//  . hold: at full size, repeatedly deletes the min and inserts a later key, as expiring timers are rescheduled.
+//  . deleteMin: empties the heap.
+// Results are in nanoseconds per operation, the best of several rounds, so small heaps are run more times. The checksum
+// is the sum of the keys left after the holds, and the benchmark fails if two layouts disagree on it.
+// Run with: java -Xmx16g heaps.HeapBenchmark [largest size, 10M by default, up to 100M with enough heap]
+public class HeapBenchmark {
+    private static final long OPERATIONS_PER_SIZE = 20_000_000L;
+    private static final int MIN_ROUNDS = 3;
+    private static final int MAX_ROUNDS = 50;
+
+    private static final int[] ARITIES = {2, 4, 4, 8, 8, 16};
+    private static final boolean[] ALIGNED = {false, false, true, false, true, true};
+
+    public static void main(String[] args) {
+        int largest = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+
+        // Keys are boxed once up front, so the benchmark doesn't measure allocation.
+        Integer[] keys = new Integer[largest];
+        for (int i = 0; i < largest; i++)
+            keys[i] = random.nextInt(Integer.MAX_VALUE / 2);
+        // Rescheduled timers fire later than anything in the heap so far.
+        Integer[] later = new Integer[Math.min(largest, 1 << 20)];
+        for (int i = 0; i < later.length; i++)
+            later[i] = Integer.MAX_VALUE / 2 + random.nextInt(Integer.MAX_VALUE / 2);
+
+        System.out.printf("%-12s %-14s %10s %10s %10s %20s%n", "size", "layout", "insert", "hold", "deleteMin",
+                "checksum");
+        for (long n = 1000; n <= largest; n *= 10) {
+            int size = (int) n;
+            int rounds = (int) Math.max(MIN_ROUNDS, Math.min(MAX_ROUNDS, OPERATIONS_PER_SIZE / size));
+            long expected = -1;
+            for (int layout = 0; layout < ARITIES.length; layout++) {
+                String name = ARITIES[layout] + "-ary" + (ALIGNED[layout] ? " aligned" : "");
+                double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+                double[] times = new double[best.length];
+                long checksum = 0;
+                for (int round = 0; round < rounds; round++) {
+                    checksum = run(keys, later, size, ARITIES[layout], ALIGNED[layout], times);
+
+                    // Every layout must delete the same keys.
+                    if (expected == -1)
+                        expected = checksum;
+                    else if (checksum != expected)
+                        throw new IllegalStateException(name + " heap of " + size + " deleted different keys");
+                    for (int i = 0; i < times.length; i++)
+                        best[i] = Math.min(best[i], times[i]);
+                }
+                System.out.printf("%-12d %-14s %10.1f %10.1f %10.1f %20d%n", size, name, best[0], best[1], best[2],
+                        checksum);
+            }
+        }
+    }
+
+    // Stores the nanoseconds per insert, hold and deleteMin operation in times, and returns the sum of the keys deleted
+    // by deleteMin, which is printed so that the deletes can't be optimized away.
+    private static long run(Integer[] keys, Integer[] later, int size, int arity, boolean aligned, double[] times) {
+        MinHeap<Integer> heap = new MinHeap<>(arity, aligned);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++)
+            heap.insert(keys[i]);
+        long inserted = System.nanoTime();
+
+        int holds = Math.min(size, later.length);
+        for (int i = 0; i < holds; i++) {
+            heap.deleteMin();
+            heap.insert(later[i]);
+        }
+        long held = System.nanoTime();
+
+        long checksum = 0;
+        while (!heap.isEmpty())
+            checksum += heap.deleteMin();
+        long deleted = System.nanoTime();
+
+        times[0] = (double) (inserted - start) / size;
+        times[1] = (double) (held - inserted) / (2 * holds);
+        times[2] = (double) (deleted - held) / size;
+        return checksum;
+    }
+}
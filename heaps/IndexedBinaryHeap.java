@@ -0,0 +1,147 @@
+package heaps;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+// A heap whose elements are associated with indices from 0 to capacity - 1, so that an element can be found, changed or
+// removed by its index in logarithmic time, instead of inserting a duplicate and skipping stale entries.
+// Two arrays map indices to heap positions and back. The elements live in a BinaryHeap that moves them only through
+// swap, so overriding it keeps both arrays up to date while reusing BinaryHeap's swim and sink. The BinaryHeap is
+// private, since its insert can't take an index.
+// Like BinaryHeap, the root is the greatest element under the comparator: a reversed comparator gives a min heap.
+public class IndexedBinaryHeap<E extends Comparable<E>> {
+    private final Heap heap;
+    // The heap position of each index, or 0 if it's not in the heap, since positions start at the root, after 0.
+    private final int[] positionOf;
+    // The index of the element at each heap position.
+    private final int[] indexAt;
+
+    public IndexedBinaryHeap(int capacity, Comparator<E> comparator) {
+        heap = new Heap(comparator);
+        positionOf = new int[capacity];
+        indexAt = new int[heap.root() + capacity];
+    }
+
+    // Inserts an element with an index that is not in the heap.
+    public void insert(int index, E e) {
+        if (contains(index))
+            throw new IllegalArgumentException("Index " + index + " is already in the heap");
+
+        // The element is placed at the end of the heap before swimming.
+        int position = heap.root() + heap.size();
+        indexAt[position] = index;
+        positionOf[index] = position;
+        heap.insert(e);
+    }
+
+    // Removes the root and returns it.
+    public E deleteRoot() {
+        if (isEmpty())
+            throw new NoSuchElementException();
+
+        int index = indexAt[heap.root()];
+        E root = heap.deleteRoot();
+        positionOf[index] = 0;
+        return root;
+    }
+
+    // Removes the root and returns its index.
+    public int deleteRootIndex() {
+        int index = peekIndex();
+        deleteRoot();
+        return index;
+    }
+
+    // Returns the root without removing it.
+    public E peek() {
+        return heap.peek();
+    }
+
+    // Returns the index of the root without removing it.
+    public int peekIndex() {
+        if (isEmpty())
+            throw new NoSuchElementException();
+
+        return indexAt[heap.root()];
+    }
+
+    // Replaces the element of an index, moving it up or down as needed.
+    public void changeKey(int index, E e) {
+        int position = positionOf(index);
+        heap.setElementAt(position, e);
+        heap.swim(position);
+        heap.sink(positionOf[index]);
+    }
+
+    // Removes the element of an index and returns it.
+    public E delete(int index) {
+        E removed = heap.removeAt(positionOf(index));
+        positionOf[index] = 0;
+        return removed;
+    }
+
+    public E keyOf(int index) {
+        return heap.elementAt(positionOf(index));
+    }
+
+    public boolean contains(int index) {
+        return positionOf[index] != 0;
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    private int positionOf(int index) {
+        if (!contains(index))
+            throw new NoSuchElementException("Index " + index + " is not in the heap");
+        return positionOf[index];
+    }
+
+    // The elements, in a binary heap that keeps positionOf and indexAt in step with its moves.
+    private class Heap extends BinaryHeap<E> {
+        Heap(Comparator<E> comparator) {
+            super(comparator);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            super.swap(i, j);
+            int index = indexAt[i];
+            indexAt[i] = indexAt[j];
+            indexAt[j] = index;
+            positionOf[indexAt[i]] = i;
+            positionOf[indexAt[j]] = j;
+        }
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        // A min heap, through the reversed comparator.
+        Comparator<Integer> minComparator = Comparator.reverseOrder();
+
+        IndexedBinaryHeap<Integer> heap = new IndexedBinaryHeap<>(10, minComparator);
+
+        // Populates the heap with index i at key 10 * i.
+        for (int i = 0; i < 10; i++)
+            heap.insert(i, 10 * i);
+
+        // Decreases a key, increases another and deletes a third.
+        heap.changeKey(7, 5);
+        heap.changeKey(0, 95);
+        assert heap.delete(3) == 30;
+        assert !heap.contains(3);
+        assert heap.keyOf(7) == 5;
+        assert heap.peek() == 5;
+
+        // Expected: 7 1 2 4 5 6 8 9 0.
+        int[] expectedOutput = {7, 1, 2, 4, 5, 6, 8, 9, 0};
+        for (int expected : expectedOutput)
+            assert heap.deleteRootIndex() == expected;
+        assert heap.isEmpty();
+    }
+}
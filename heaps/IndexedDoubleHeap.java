@@ -0,0 +1,203 @@
+package heaps;
+
+import java.util.NoSuchElementException;
+
+// An indexed min-heap of items 0 to capacity - 1 keyed by doubles, with decrease-key.
+// Items and keys live in primitive arrays, so no operation allocates or boxes. Each node has arity children instead of
+// two: the heap is shallower, so deleteMin does fewer swaps, and the children of a node sit next to each other in memory.
+// Four children is a good default for Dijkstra and Prim, where decreasing keys is much more common than deleting.
+public class IndexedDoubleHeap {
+    private static final int DEFAULT_ARITY = 4;
+    private final int arity;
+    // The heap is 0-indexed here: the children of slot i are slots arity * i + 1 to arity * i + arity.
+    private final int[] heap;
+    // The slot of each item in the heap, or -1 if it's not in the heap.
+    private final int[] slotOf;
+    private final double[] keys;
+    private int size;
+
+    public IndexedDoubleHeap(int capacity) {
+        this(capacity, 0);
+    }
+
+    public IndexedDoubleHeap(int capacity, int arity) {
+        this.arity = arity > 0 ? arity : DEFAULT_ARITY;
+        heap = new int[capacity];
+        slotOf = new int[capacity];
+        keys = new double[capacity];
+        for (int i = 0; i < capacity; i++)
+            slotOf[i] = -1;
+    }
+
+    // Inserts an item that is not in the heap.
+    public void insert(int item, double key) {
+        if (contains(item))
+            throw new IllegalArgumentException("Item " + item + " is already in the heap");
+
+        keys[item] = key;
+        heap[size] = item;
+        slotOf[item] = size;
+        swim(size++);
+    }
+
+    // Changes the key of an item in the heap, up or down.
+    public void changeKey(int item, double key) {
+        if (!contains(item))
+            throw new NoSuchElementException("Item " + item + " is not in the heap");
+
+        double old = keys[item];
+        keys[item] = key;
+        if (key < old)
+            swim(slotOf[item]);
+        else
+            sink(slotOf[item]);
+    }
+
+    // Inserts the item, or lowers its key if it's in the heap with a greater key. Returns whether anything changed.
+    public boolean insertOrDecrease(int item, double key) {
+        if (!contains(item)) {
+            insert(item, key);
+            return true;
+        }
+        if (key >= keys[item])
+            return false;
+        keys[item] = key;
+        swim(slotOf[item]);
+        return true;
+    }
+
+    // Removes the item with the smallest key and returns it.
+    public int deleteMin() {
+        // Cannot delete from an empty heap.
+        if (isEmpty())
+            throw new NoSuchElementException();
+
+        int min = heap[0];
+        removeSlot(0);
+        return min;
+    }
+
+    // Removes an item from the heap, wherever it is.
+    public void delete(int item) {
+        if (!contains(item))
+            throw new NoSuchElementException("Item " + item + " is not in the heap");
+        removeSlot(slotOf[item]);
+    }
+
+    // Returns the item with the smallest key without removing it.
+    public int peek() {
+        if (isEmpty())
+            throw new NoSuchElementException();
+        return heap[0];
+    }
+
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    public double keyOf(int item) {
+        if (!contains(item))
+            throw new NoSuchElementException("Item " + item + " is not in the heap");
+        return keys[item];
+    }
+
+    public boolean contains(int item) {
+        return slotOf[item] != -1;
+    }
+
+    // Empties the heap in time proportional to its size, so it can be reused without reallocating.
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            slotOf[heap[i]] = -1;
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Moves the last item into the slot, then restores the invariant in whichever direction it's broken.
+    private void removeSlot(int slot) {
+        int removed = heap[slot];
+        int last = heap[--size];
+        slotOf[removed] = -1;
+        if (slot == size)
+            return;
+
+        heap[slot] = last;
+        slotOf[last] = slot;
+        swim(slot);
+        sink(slotOf[last]);
+    }
+
+    // Moves the item up while it's smaller than its parent. The item is only written once, at its final slot.
+    private void swim(int slot) {
+        int item = heap[slot];
+        double key = keys[item];
+
+        while (slot > 0) {
+            int parent = (slot - 1) / arity;
+            if (keys[heap[parent]] <= key)
+                break;
+            heap[slot] = heap[parent];
+            slotOf[heap[slot]] = slot;
+            slot = parent;
+        }
+
+        heap[slot] = item;
+        slotOf[item] = slot;
+    }
+
+    // Moves the item down while one of its children is smaller.
+    private void sink(int slot) {
+        int item = heap[slot];
+        double key = keys[item];
+
+        while (true) {
+            int first = arity * slot + 1;
+            if (first >= size)
+                break;
+
+            // Finds the smallest child.
+            int child = first;
+            int last = Math.min(first + arity, size);
+            for (int c = first + 1; c < last; c++)
+                if (keys[heap[c]] < keys[heap[child]])
+                    child = c;
+
+            if (keys[heap[child]] >= key)
+                break;
+            heap[slot] = heap[child];
+            slotOf[heap[slot]] = slot;
+            slot = child;
+        }
+
+        heap[slot] = item;
+        slotOf[item] = slot;
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(10);
+
+        // Populates the heap with keys in descending order.
+        for (int i = 0; i < 10; i++)
+            heap.insert(i, 10 - i);
+
+        // Decreases a key, increases another and deletes a third.
+        heap.changeKey(0, 0.5);
+        heap.changeKey(9, 20);
+        heap.delete(5);
+        assert !heap.contains(5);
+
+        // Expected: 0 8 7 6 4 3 2 1 9.
+        int[] expectedOutput = {0, 8, 7, 6, 4, 3, 2, 1, 9};
+        for (int expected : expectedOutput)
+            assert heap.deleteMin() == expected;
+        assert heap.isEmpty();
+    }
+}
@@ -0,0 +1,208 @@
+package heaps;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// A heap of long keys, either min or max, each with an optional int payload such as the id of what the key scores.
+// Keys and payloads are kept in primitive arrays, so nothing is boxed and no comparator is called: comparing is a
+// single primitive comparison. The arrays grow by doubling and never shrink, so once the heap has reached its working
+// size, insert and delete allocate nothing. Elements are moved into a hole instead of being swapped, which halves the
+// writes of swim and sink.
+public class LongHeap {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int RESIZING_FACTOR = 2;
+    private final boolean max;
+    // 1-indexed like BinaryHeap: the children of i are 2i and 2i + 1.
+    private long[] keys;
+    // Null if the heap has no payloads.
+    private int[] payloads;
+    private int size;
+
+    // An empty heap of keys only, with the greatest key at the root if max, or the smallest one otherwise.
+    public LongHeap(boolean max) {
+        this(DEFAULT_CAPACITY, max, false);
+    }
+
+    public LongHeap(int capacity, boolean max, boolean withPayloads) {
+        this.max = max;
+        keys = new long[Math.max(capacity, 1) + 1];
+        if (withPayloads)
+            payloads = new int[keys.length];
+    }
+
+    // Heapifies a copy of the keys in linear time.
+    public LongHeap(long[] array, boolean max) {
+        this(array, null, max);
+    }
+
+    // Heapifies a copy of the keys and their payloads in linear time. payloads[i] belongs to array[i].
+    public LongHeap(long[] array, int[] payloads, boolean max) {
+        this.max = max;
+        size = array.length;
+        keys = new long[size + 1];
+        System.arraycopy(array, 0, keys, 1, size);
+        if (payloads != null) {
+            this.payloads = new int[size + 1];
+            System.arraycopy(payloads, 0, this.payloads, 1, size);
+        }
+
+        // Starting from the parent of the last element, going through all parents, perform sink operations.
+        for (int i = size / 2; i >= 1; i--)
+            sink(i, this.keys[i], this.payloads == null ? 0 : this.payloads[i]);
+    }
+
+    public void insert(long key) {
+        insert(key, 0);
+    }
+
+    // Inserts a key with its payload. The payload is ignored if the heap has no payloads.
+    public void insert(long key, int payload) {
+        if (size + 1 == keys.length)
+            resize(keys.length * RESIZING_FACTOR);
+        swim(++size, key, payload);
+    }
+
+    // Removes the root and returns its key. Its payload must be read with peekPayload before.
+    public long deleteRoot() {
+        // Cannot delete from an empty heap.
+        if (isEmpty())
+            throw new NoSuchElementException();
+
+        long root = keys[1];
+        // The last element fills the hole left at the root.
+        int last = size--;
+        if (size > 0)
+            sink(1, keys[last], payloads == null ? 0 : payloads[last]);
+        return root;
+    }
+
+    // Replaces the root with a new key and payload, in a single sink. This is how a bounded top-k heap evicts.
+    public void replaceRoot(long key, int payload) {
+        if (isEmpty())
+            throw new NoSuchElementException();
+        sink(1, key, payload);
+    }
+
+    public long peek() {
+        // Cannot peek into an empty heap.
+        if (isEmpty())
+            throw new NoSuchElementException();
+
+        return keys[1];
+    }
+
+    public int peekPayload() {
+        if (isEmpty())
+            throw new NoSuchElementException();
+        if (payloads == null)
+            throw new IllegalStateException("The heap has no payloads");
+
+        return payloads[1];
+    }
+
+    public boolean isMax() {
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Empties the heap, keeping its capacity.
+    public void clear() {
+        size = 0;
+    }
+
+    // Whether key a belongs above key b.
+    private boolean above(long a, long b) {
+        return max ? a > b : a < b;
+    }
+
+    // Moves the hole at index up while the element belongs above its parent, then puts the element in it.
+    private void swim(int index, long key, int payload) {
+        while (index > 1 && above(key, keys[index / 2])) {
+            move(index / 2, index);
+            index /= 2;
+        }
+        put(index, key, payload);
+    }
+
+    // Moves the hole at index down while a child belongs above the element, then puts the element in it.
+    private void sink(int index, long key, int payload) {
+        int child = 2 * index;
+
+        while (child <= size) {
+            // Gets the child that belongs higher, or the left if they're the same.
+            if (child < size && above(keys[child + 1], keys[child]))
+                child++;
+
+            if (!above(keys[child], key))
+                break;
+
+            move(child, index);
+            index = child;
+            child *= 2;
+        }
+        put(index, key, payload);
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        if (payloads != null)
+            payloads[to] = payloads[from];
+    }
+
+    private void put(int index, long key, int payload) {
+        keys[index] = key;
+        if (payloads != null)
+            payloads[index] = payload;
+    }
+
+    private void resize(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        if (payloads != null)
+            payloads = Arrays.copyOf(payloads, capacity);
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        LongHeap maxHeap = new LongHeap(true);
+
+        // Populates the heap.
+        for (int i = 0; i < 10; i++)
+            maxHeap.insert(i);
+
+        // Expected: 9, 8, 7, 6, 5, 4, 3, 2, 1, 0.
+        for (int i = 0; i < 10; i++)
+            assert maxHeap.deleteRoot() == 9 - i;
+
+        // A heap of keys only has no payload to peek at.
+        maxHeap.insert(1);
+        try {
+            maxHeap.peekPayload();
+            assert false;
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+
+        // Heapifies keys with payloads, in a min heap.
+        long[] keys = {5, 3, 8, 1, 9, 2};
+        int[] payloads = {50, 30, 80, 10, 90, 20};
+        LongHeap minHeap = new LongHeap(keys, payloads, false);
+
+        // Replaces the 1 with a 7, so the heap holds 2 3 5 7 8 9.
+        minHeap.replaceRoot(7, 70);
+
+        // Expected: 2 3 5 7 8 9, each with ten times its key as payload.
+        long[] expectedOutput = {2, 3, 5, 7, 8, 9};
+        for (long expected : expectedOutput) {
+            assert minHeap.peekPayload() == 10 * expected;
+            assert minHeap.deleteRoot() == expected;
+        }
+        assert minHeap.isEmpty();
+    }
+}
@@ -9,40 +9,57 @@ public class MaxHeap <E extends Comparable<E>> {
     private final int RESIZING_FACTOR = 2;
     private E[] heap;
     private int size;
+    // Number of children of each node.
+    private final int arity;
+    // Position of the root in the array. Everything before it is unused.
+    private final int root;
 
     // Creating a heap adding n elements, one at a time, has n log n time complexity.
     public MaxHeap () {
-        heap = (E[]) new Comparable[DEFAULT_CAPACITY];
+        this(2, false);
+    }
+
+    // A heap with arity children per node, where the aligned layout starts the children of every node at a multiple of
+    // arity. BinaryHeap explains both trade-offs.
+    public MaxHeap (int arity, boolean aligned) {
+        this.arity = checkArity(arity);
+        root = aligned ? arity - 1 : 1;
+        heap = (E[]) new Comparable[root + DEFAULT_CAPACITY];
         size = 0;
-        heap[0] = null;
     }
 
     // Creating a heap out of an array is more efficient, with only linear time complexity.
     public MaxHeap (E[] array) {
+        this(array, 2, false);
+    }
+
+    public MaxHeap (E[] array, int arity, boolean aligned) {
+        this.arity = checkArity(arity);
+        root = aligned ? arity - 1 : 1;
         size = array.length;
         // Creates the heap with capacity for the entire array.
         // If insert operations are expected, then 2 * size is better.
-        heap = (E[]) new Comparable[size + 1];
-        System.arraycopy(array, 0, heap, 1, size);
-        heap[0] = null;
+        heap = (E[]) new Comparable[root + size];
+        System.arraycopy(array, 0, heap, root, size);
 
         // Starting from the parent of the last element, going through all parents, perform sink operations.
         // This ensures no element is smaller than its children.
-        for (int i = size / 2; i >= 1; i--)
-            sink(i);
+        if (size > 1)
+            for (int i = parent(root + size - 1); i >= root; i--)
+                sink(i);
     }
 
     // Inserts an element and maintains the heap invariant.
     public void insert(E e) {
         // Resizes the array, if it lacks capacity.
-        if (size + 1 == heap.length)
-            resize(size * RESIZING_FACTOR);
+        if (root + size == heap.length)
+            resize(heap.length * RESIZING_FACTOR);
 
         // Inserts the element at the end of the heap.
-        heap[++size] = e;
+        heap[root + size] = e;
 
         // Swims the element up to maintain the heap invariant.
-        swim(size);
+        swim(root + size++);
     }
 
     // Removes the first element of the heap and returns it, maintaining the heap invariant. Resizes the heap if it's sparse.
@@ -52,20 +69,20 @@ public class MaxHeap <E extends Comparable<E>> {
             throw new NoSuchElementException();
 
         // Stores the element/
-        E max = heap[1];
+        E max = heap[root];
 
         // Puts the last element of the heap in the first place.
-        swap(1, size);
+        swap(root, root + size - 1);
 
         // Removes the max element.
-        heap[size--] = null;
+        heap[root + --size] = null;
 
         // Sinks the former element to maintain the heap invariant.
-        sink(1);
+        sink(root);
 
         // Resizes the array if it's less than 25% full.
         if (4 * size < heap.length && size > 1)
-            resize(size * RESIZING_FACTOR);
+            resize(root + size * RESIZING_FACTOR);
 
         // Returns the max element.
         return max;
@@ -77,7 +94,7 @@ public class MaxHeap <E extends Comparable<E>> {
         if (isEmpty())
             throw new NoSuchElementException();
 
-        return heap[1];
+        return heap[root];
     }
 
     public boolean isEmpty() {
@@ -90,39 +107,47 @@ public class MaxHeap <E extends Comparable<E>> {
 
     // Ensures an element is either greater than its parent, or it is the root.
     private void swim(int index) {
-        int parentIndex = index / 2;
-
-        while (parentIndex > 0 && less(parentIndex, index)) {
-            swap(index, parentIndex);
-            index = parentIndex;
-            parentIndex /= 2;
+        while (index > root && less(parent(index), index)) {
+            swap(index, parent(index));
+            index = parent(index);
         }
     }
 
     // Ensures an element is greater than its children, or it is a leaf.
     private void sink(int index) {
-        // Gets the left child of the node.
-        int child = 2 * index;
-
-        while (child <= size) {
-            // Gets the greater of the two children, or the left if they're the same.
-            if (child < size && less(child, child + 1))
-                child++;
-
-            // Stops when both children are smaller than the element.
-            if (!less(index, child))
+        // Gets the first child of the node.
+        int child = firstChild(index);
+        int last = root + size - 1;
+
+        while (child <= last) {
+            // Gets the greater of the children, or the leftmost if they're the same.
+            int best = child;
+            for (int sibling = child + 1; sibling < child + arity && sibling <= last; sibling++)
+                if (less(best, sibling))
+                    best = sibling;
+
+            // Stops when all children are smaller than the element.
+            if (!less(index, best))
                 break;
 
-            swap(index, child);
+            swap(index, best);
 
             // Now the element occupies the child's node in the tree.
-            index = child;
+            index = best;
 
-            // Updates to the current node's left child.
-            child *= 2;
+            // Updates to the current node's first child.
+            child = firstChild(index);
         }
     }
 
+    private int parent(int index) {
+        return root + (index - root - 1) / arity;
+    }
+
+    private int firstChild(int index) {
+        return root + (index - root) * arity + 1;
+    }
+
     private void swap(int i, int j) {
         E temp = heap[i];
         heap[i] = heap[j];
@@ -135,10 +160,16 @@ public class MaxHeap <E extends Comparable<E>> {
 
     private void resize(int capacity) {
         E[] newHeap = (E[]) new Comparable[capacity];
-        System.arraycopy(heap, 0, newHeap, 0, size + 1);
+        System.arraycopy(heap, 0, newHeap, 0, root + size);
         heap = newHeap;
     }
 
+    private static int checkArity(int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("Arity must be at least 2, got " + arity);
+        return arity;
+    }
+
     // Tests for correctness.
     public static void main(String[] args) {
         MaxHeap<Integer> maxHeap = new MaxHeap<>();
@@ -0,0 +1,293 @@
+package heaps;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+// Approximate median and quantiles of an unbounded stream of doubles in bounded memory, with a KLL sketch (Karnin, Lang
+// and Liberty, FOCS 2016). It has MedianHeap's insert and findTheMedian, for when keeping every element is too much.
+// Values are kept in levels, where each value at level h stands for 2^h values of the stream. When the sketch is full,
+// the lowest level over its capacity is sorted and compacted: every other value, from a random start, moves up a
+// level and the rest are dropped, which keeps the ranks of all values unbiased. Capacities shrink by 2/3 per level
+// below the top, so the sketch holds about 3k values however long the stream is: around 5 KB for the default k = 200.
+// Sketches are mergeable, so threads or nodes can each sketch their own part of a stream and combine the results, and
+// they serialize to bytes to be shipped between nodes. A sketch is not thread-safe.
+public class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+    private static final int MIN_CAPACITY = 8;
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    private final int k;
+    private final Random random;
+    // The values of each level, levels[h][0..sizes[h]).
+    private double[][] levels;
+    private int[] sizes;
+    private int numberOfLevels;
+    // The sum of sizes, and the capacity of each level and their sum, which only change when a level is added.
+    private int retained;
+    private int[] capacities;
+    private int totalCapacity;
+    private long n;
+    private double min = Double.NaN, max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    // A greater k gives more accurate answers for more memory, see errorBound.
+    public QuantileSketch(int k) {
+        this(k, new Random());
+    }
+
+    // Compacts with a seeded random, so that tests get the same answers every run.
+    QuantileSketch(int k, long seed) {
+        this(k, new Random(seed));
+    }
+
+    private QuantileSketch(int k, Random random) {
+        if (k < MIN_CAPACITY)
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ", got " + k);
+        this.k = k;
+        this.random = random;
+        levels = new double[1][k];
+        sizes = new int[1];
+        numberOfLevels = 1;
+        updateCapacities();
+    }
+
+    public void insert(double value) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("Values must be numbers");
+
+        if (n++ == 0) {
+            min = max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        add(0, value);
+        compress();
+    }
+
+    // The lower median, as in MedianHeap, up to errorBound in rank.
+    public double findTheMedian() {
+        return quantile(0.5);
+    }
+
+    // A value whose rank among the n values inserted is within errorBound() * n of ceil(q * n).
+    // The minimum and maximum are exact.
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1))
+            throw new IllegalArgumentException("Quantile must be in [0, 1], got " + q);
+        if (n == 0)
+            throw new NoSuchElementException();
+        if (q == 0)
+            return min;
+        if (q == 1)
+            return max;
+
+        // Walks the values in increasing order, each weighing 2^level, until the weight reaches the rank.
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long weight = 0;
+        int[] next = sortLevels();
+        while (true) {
+            int h = smallestHead(next);
+            if (h == -1)
+                return max;
+            weight += 1L << h;
+            double value = levels[h][next[h]++];
+            if (weight >= rank)
+                return value;
+        }
+    }
+
+    // The fraction of the values inserted that are less than or equal to value, up to errorBound.
+    public double rank(double value) {
+        if (n == 0)
+            throw new NoSuchElementException();
+
+        long weight = 0;
+        for (int h = 0; h < numberOfLevels; h++)
+            for (int i = 0; i < sizes[h]; i++)
+                if (levels[h][i] <= value)
+                    weight += 1L << h;
+        return (double) weight / n;
+    }
+
+    // The error of quantile and rank as a fraction of n, which holds with 99% confidence. The constants are the
+    // empirical ones of the KLL sketch in Apache DataSketches: 1.3% for k = 200.
+    public double errorBound() {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    // Adds the values of another sketch with the same k to this one, as if they had been inserted here.
+    public void merge(QuantileSketch other) {
+        if (other.k != k)
+            throw new IllegalArgumentException("Cannot merge sketches with k " + k + " and " + other.k);
+        if (other.n == 0)
+            return;
+
+        min = n == 0 ? other.min : Math.min(min, other.min);
+        max = n == 0 ? other.max : Math.max(max, other.max);
+        n += other.n;
+        // The sizes are read first, since merging a sketch into itself grows them while adding.
+        int[] otherSizes = Arrays.copyOf(other.sizes, other.numberOfLevels);
+        for (int h = 0; h < otherSizes.length; h++)
+            for (int i = 0; i < otherSizes[h]; i++)
+                add(h, other.levels[h][i]);
+        compress();
+    }
+
+    // Number of values inserted.
+    public long size() {
+        return n;
+    }
+
+    // Number of values the sketch currently keeps.
+    public int retained() {
+        return retained;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    // Serializes the sketch: k, n, min, max, the number of levels, then each level's size followed by its values.
+    public byte[] toByteArray() {
+        ByteBuffer bytes = ByteBuffer.allocate(4 + 8 + 8 + 8 + 4 + 4 * numberOfLevels + 8 * retained());
+        bytes.putInt(k).putLong(n).putDouble(min).putDouble(max).putInt(numberOfLevels);
+        for (int h = 0; h < numberOfLevels; h++) {
+            bytes.putInt(sizes[h]);
+            for (int i = 0; i < sizes[h]; i++)
+                bytes.putDouble(levels[h][i]);
+        }
+        return bytes.array();
+    }
+
+    public static QuantileSketch fromByteArray(byte[] array) {
+        ByteBuffer bytes = ByteBuffer.wrap(array);
+        QuantileSketch sketch = new QuantileSketch(bytes.getInt());
+        sketch.n = bytes.getLong();
+        sketch.min = bytes.getDouble();
+        sketch.max = bytes.getDouble();
+        int numberOfLevels = bytes.getInt();
+        for (int h = 0; h < numberOfLevels; h++) {
+            int size = bytes.getInt();
+            sketch.ensureLevel(h);
+            for (int i = 0; i < size; i++)
+                sketch.add(h, bytes.getDouble());
+        }
+        return sketch;
+    }
+
+    // The capacity of each level depends on its depth below the top. The top level holds k values, and each level below
+    // holds 2/3 of the one above.
+    private void updateCapacities() {
+        capacities = new int[numberOfLevels];
+        totalCapacity = 0;
+        for (int h = 0; h < numberOfLevels; h++) {
+            int depth = numberOfLevels - 1 - h;
+            capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, depth)));
+            totalCapacity += capacities[h];
+        }
+    }
+
+    // Compacts the lowest full level until the sketch fits.
+    private void compress() {
+        while (retained > totalCapacity) {
+            for (int h = 0; h < numberOfLevels; h++) {
+                if (sizes[h] >= capacities[h]) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    // Sorts level h and moves every other value to level h + 1, from a random start. If the level has an odd number
+    // of values, the smallest stays behind.
+    private void compact(int h) {
+        ensureLevel(h + 1);
+        double[] level = levels[h];
+        int size = sizes[h];
+        Arrays.sort(level, 0, size);
+
+        int start = size % 2;
+        for (int i = start + (random.nextBoolean() ? 1 : 0); i < size; i += 2)
+            add(h + 1, level[i]);
+        retained -= size - start;
+        sizes[h] = start;
+    }
+
+    private void add(int h, double value) {
+        ensureLevel(h);
+        if (sizes[h] == levels[h].length)
+            levels[h] = Arrays.copyOf(levels[h], 2 * levels[h].length);
+        levels[h][sizes[h]++] = value;
+        retained++;
+    }
+
+    private void ensureLevel(int h) {
+        if (h < numberOfLevels)
+            return;
+
+        if (h >= levels.length) {
+            levels = Arrays.copyOf(levels, 2 * (h + 1));
+            sizes = Arrays.copyOf(sizes, levels.length);
+        }
+        for (int level = numberOfLevels; level <= h; level++)
+            levels[level] = new double[MIN_CAPACITY];
+        numberOfLevels = h + 1;
+        updateCapacities();
+    }
+
+    // Sorts every level in place, which doesn't change what it represents, and returns a cursor per level.
+    private int[] sortLevels() {
+        for (int h = 0; h < numberOfLevels; h++)
+            Arrays.sort(levels[h], 0, sizes[h]);
+        return new int[numberOfLevels];
+    }
+
+    // The level whose next value is the smallest, or -1 if all levels have been walked through.
+    private int smallestHead(int[] next) {
+        int smallest = -1;
+        for (int h = 0; h < numberOfLevels; h++)
+            if (next[h] < sizes[h] && (smallest == -1 || levels[h][next[h]] < levels[smallest][next[smallest]]))
+                smallest = h;
+        return smallest;
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        // Below k values nothing is compacted, and the answers are exact.
+        QuantileSketch small = new QuantileSketch();
+        for (int i = 0; i < 10; i++)
+            small.insert(i);
+
+        // Expected: the lower median 4, like MedianHeap.
+        assert small.findTheMedian() == 4;
+
+        // Merging a sketch into itself counts every value twice.
+        small.merge(small);
+        assert small.size() == 20;
+        assert small.findTheMedian() == 4;
+
+        // A million values, sketched in two halves and merged, still answer within the error bound. The bound only
+        // holds with 99% confidence, so the sketches are seeded to keep the test from failing at random.
+        QuantileSketch evens = new QuantileSketch(DEFAULT_K, 1), odds = new QuantileSketch(DEFAULT_K, 2);
+        int n = 1_000_000;
+        for (int i = 0; i < n; i++)
+            (i % 2 == 0 ? evens : odds).insert(i);
+        QuantileSketch sketch = new QuantileSketch(DEFAULT_K, 3);
+        sketch.merge(QuantileSketch.fromByteArray(evens.toByteArray()));
+        sketch.merge(odds);
+
+        assert sketch.size() == n;
+        assert sketch.retained() < 3 * DEFAULT_K;
+        assert sketch.retained() == Arrays.stream(sketch.sizes, 0, sketch.numberOfLevels).sum();
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.99})
+            assert Math.abs(sketch.quantile(q) - q * n) <= sketch.errorBound() * n;
+        assert sketch.quantile(1) == n - 1;
+    }
+}
@@ -0,0 +1,224 @@
+package heaps;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Rolling median, or any other quantile, of the last w values of a stream of doubles, in O(log w) expected per value.
+// The window is a ring of w slots, and the slots in use are kept in a treap ordered by their value, then by slot so
+// that equal values don't tie. Each node keeps the size of its subtree, so the value of any rank is found in one
+// descent, and the oldest value is evicted by its slot. The slots are the nodes, so the treap lives in arrays indexed
+// by slot and nothing is allocated per value.
+// The quantile q is the value of rank ceil(q * n) out of the n values in the window, which for q = 0.5 is the lower
+// median, as in MedianHeap. add returns the quantile given at construction, and quantile(q) answers any other.
+public class WindowedMedian {
+    // The missing child or root of the treap.
+    private static final int NONE = -1;
+
+    private final int windowSize;
+    private final double quantile;
+    private final double[] window;
+    // The slot the next value goes to, which holds the oldest value once the window is full.
+    private int next;
+    private int size;
+    // The treap of the slots in the window, or NONE if it's empty: children, random priorities, and subtree sizes.
+    private int root = NONE;
+    private final int[] left;
+    private final int[] right;
+    private final int[] priority;
+    private final int[] count;
+    // The two halves returned by split.
+    private int splitLeft, splitRight;
+
+    public WindowedMedian(int windowSize) {
+        this(windowSize, 0.5);
+    }
+
+    public WindowedMedian(int windowSize, double quantile) {
+        if (windowSize < 1)
+            throw new IllegalArgumentException("Window size must be positive, got " + windowSize);
+        if (!(quantile > 0 && quantile <= 1))
+            throw new IllegalArgumentException("Quantile must be in (0, 1], got " + quantile);
+
+        this.windowSize = windowSize;
+        this.quantile = quantile;
+        window = new double[windowSize];
+        left = new int[windowSize];
+        right = new int[windowSize];
+        count = new int[windowSize];
+        priority = new int[windowSize];
+        Random random = ThreadLocalRandom.current();
+        for (int slot = 0; slot < windowSize; slot++)
+            priority[slot] = random.nextInt();
+    }
+
+    // Adds a value, evicting the oldest one if the window is full, and returns the quantile of the new window.
+    public double add(double value) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("Values must be numbers");
+
+        // Evicts the oldest value, while its slot still holds it, since the treap finds slots by value.
+        if (size == windowSize) {
+            root = delete(root, next);
+            size--;
+        }
+
+        window[next] = value;
+        root = insert(root, next);
+        size++;
+        next = next + 1 == windowSize ? 0 : next + 1;
+
+        return quantile();
+    }
+
+    // The quantile given at construction, of the values in the window.
+    public double quantile() {
+        return quantile(quantile);
+    }
+
+    // The value of rank ceil(q * n) out of the n values in the window, for any q in (0, 1].
+    public double quantile(double q) {
+        if (!(q > 0 && q <= 1))
+            throw new IllegalArgumentException("Quantile must be in (0, 1], got " + q);
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        // Descends from the root, skipping the left subtrees of the nodes that come before the rank.
+        int rank = Math.max(1, (int) Math.ceil(q * size));
+        int t = root;
+        while (true) {
+            int before = countOf(left[t]);
+            if (rank <= before) {
+                t = left[t];
+            } else if (rank == before + 1) {
+                return window[t];
+            } else {
+                rank -= before + 1;
+                t = right[t];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    // Inserts a slot, whose value is already in the window, into the treap rooted at t, and returns the new root.
+    private int insert(int t, int slot) {
+        if (t == NONE || priority[slot] > priority[t]) {
+            split(t, slot);
+            left[slot] = splitLeft;
+            right[slot] = splitRight;
+            update(slot);
+            return slot;
+        }
+
+        if (before(slot, t))
+            left[t] = insert(left[t], slot);
+        else
+            right[t] = insert(right[t], slot);
+        update(t);
+        return t;
+    }
+
+    // Removes a slot from the treap rooted at t, and returns the new root.
+    private int delete(int t, int slot) {
+        if (t == slot)
+            return merge(left[t], right[t]);
+
+        if (before(slot, t))
+            left[t] = delete(left[t], slot);
+        else
+            right[t] = delete(right[t], slot);
+        update(t);
+        return t;
+    }
+
+    // Splits the treap rooted at t into the slots before slot, in splitLeft, and the ones after it, in splitRight.
+    private void split(int t, int slot) {
+        if (t == NONE) {
+            splitLeft = splitRight = NONE;
+        } else if (before(t, slot)) {
+            split(right[t], slot);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], slot);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    // Joins two treaps, where every slot of a comes before every slot of b, and returns the new root.
+    private int merge(int a, int b) {
+        if (a == NONE)
+            return b;
+        if (b == NONE)
+            return a;
+
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    // Orders slots by value, and equal values by slot, so that no two slots tie.
+    private boolean before(int a, int b) {
+        return window[a] < window[b] || window[a] == window[b] && a < b;
+    }
+
+    private void update(int t) {
+        count[t] = 1 + countOf(left[t]) + countOf(right[t]);
+    }
+
+    private int countOf(int t) {
+        return t == NONE ? 0 : count[t];
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        WindowedMedian median = new WindowedMedian(3);
+
+        // Expected medians of the last 3 values: 5, 1 (of 5 1), 5 (of 5 1 9), 2 (of 1 9 2), 2 (of 9 2 0), 2 (of 2 0 7).
+        double[] values = {5, 1, 9, 2, 0, 7};
+        double[] expectedOutput = {5, 1, 5, 2, 2, 2};
+        for (int i = 0; i < values.length; i++)
+            assert median.add(values[i]) == expectedOutput[i];
+
+        // The 90th percentile of the last 10 values is the 9th smallest.
+        WindowedMedian percentile = new WindowedMedian(10, 0.9);
+        for (int i = 0; i < 100; i++)
+            percentile.add(i);
+        assert percentile.quantile() == 98;
+
+        // Any quantile of the same window, compared with sorting it.
+        Random random = new Random(42);
+        WindowedMedian window = new WindowedMedian(50);
+        double[] recent = new double[50];
+        double[] quantiles = {0.01, 0.25, 0.5, 0.75, 0.9, 1};
+        for (int i = 0; i < 1000; i++) {
+            // Few distinct values, so that ties are common.
+            double value = random.nextInt(20);
+            recent[i % 50] = value;
+            window.add(value);
+
+            int n = Math.min(i + 1, 50);
+            double[] sorted = Arrays.copyOf(recent, n);
+            Arrays.sort(sorted);
+            for (double q : quantiles)
+                assert window.quantile(q) == sorted[Math.max(1, (int) Math.ceil(q * n)) - 1];
+            assert window.quantile(0.5) == window.quantile();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package union_find;
+
+// How find shortens the path from an element to its root, which is what keeps later finds fast.
+// All three give the same amortized bounds with union by size, but they differ in how many writes they make and how
+// many passes over the path they need, so the fastest depends on the workload.
+public enum Compression {
+    // Two passes: finds the root, then points every node on the path straight to it.
+    FULL {
+        @Override
+        public int find(int[] id, int p) {
+            int root = p;
+            while (root != id[root])
+                root = id[root];
+
+            while (p != root) {
+                int next = id[p];
+                id[p] = root;
+                p = next;
+            }
+            return root;
+        }
+    },
+    // One pass: points every other node on the path to its grandparent, and skips to it.
+    HALVING {
+        @Override
+        public int find(int[] id, int p) {
+            while (p != id[p]) {
+                id[p] = id[id[p]];
+                p = id[p];
+            }
+            return p;
+        }
+    },
+    // One pass: points every node on the path to its grandparent.
+    SPLITTING {
+        @Override
+        public int find(int[] id, int p) {
+            while (p != id[p]) {
+                int next = id[p];
+                id[p] = id[next];
+                p = next;
+            }
+            return p;
+        }
+    };
+
+    // Returns the root of p in the forest of parent links id, compressing the path on the way.
+    public abstract int find(int[] id, int p);
+}
@@ -0,0 +1,116 @@
+package union_find;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// A lock-free union-find that any number of threads can use at once, after Jayanti and Tarjan (PODC 2016).
+// The parent links are the only state, in an AtomicIntegerArray:
+//  . find does path splitting: every node on the path is pointed to its grandparent with a CAS. A failed CAS means
+//    another thread already moved the link up, so it's never retried.
+//  . union links one root under the other with a single CAS that only succeeds if it's still a root, and starts over
+//    otherwise. Roots are ordered by a fixed pseudo-random priority of their index, which keeps trees shallow like
+//    union by rank does but needs no rank to be updated atomically with the link.
+// Every operation is linearizable, and no thread ever waits for another one to finish.
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray id;
+
+    public ConcurrentUnionFind(int n) {
+        id = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            id.set(i, i);
+    }
+
+    // Merges the sets of p and q. Returns whether they were in different sets.
+    public boolean union(int p, int q) {
+        while (true) {
+            p = find(p);
+            q = find(q);
+            if (p == q)
+                return false;
+
+            // The root with the lower priority goes under the other one.
+            if (precedes(q, p)) {
+                int swap = p;
+                p = q;
+                q = swap;
+            }
+            if (id.compareAndSet(p, p, q))
+                return true;
+        }
+    }
+
+    public int find(int p) {
+        while (true) {
+            int parent = id.get(p);
+            if (parent == p)
+                return p;
+
+            int grandparent = id.get(parent);
+            if (parent != grandparent)
+                id.compareAndSet(p, parent, grandparent);
+            p = parent;
+        }
+    }
+
+    public boolean connected(int p, int q) {
+        while (true) {
+            p = find(p);
+            q = find(q);
+            if (p == q)
+                return true;
+            // If p is still a root, p and q were in different sets when q's root was found.
+            if (id.get(p) == p)
+                return false;
+        }
+    }
+
+    public int size() {
+        return id.length();
+    }
+
+    // Orders elements by a hash of their index, breaking ties by index, so that no input order makes long chains.
+    private static boolean precedes(int p, int q) {
+        int hp = mix(p), hq = mix(q);
+        return hp < hq || hp == hq && p < q;
+    }
+
+    // The finalizer of MurmurHash3, a bijection that spreads consecutive integers.
+    private static int mix(int x) {
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(10);
+
+        assert !uf.connected(0, 1);
+
+        assert uf.union(0, 1);
+
+        assert !uf.union(1, 0);
+
+        assert uf.connected(0, 1);
+
+        // Threads join overlapping ranges, which together connect everything.
+        int n = 1 << 16;
+        ConcurrentUnionFind shared = new ConcurrentUnionFind(n);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = offset; i + 1 < n; i += threads.length)
+                    shared.union(i, i + 1);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        for (int i = 0; i < n; i++)
+            assert shared.find(i) == shared.find(0);
+    }
+}
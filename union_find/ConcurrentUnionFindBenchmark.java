@@ -0,0 +1,111 @@
+package union_find;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Throughput of ConcurrentUnionFind against UnionFind behind a single lock, for 1 to 32 threads merging the same random
+// edges, as parallel ingest workers would. Each configuration is run a few times untimed first so that it's compiled.
+// Run with: java union_find.ConcurrentUnionFindBenchmark [elements] [edges]
+public class ConcurrentUnionFindBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 22;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 24;
+
+        Random random = new Random(42);
+        int[] p = new int[m], q = new int[m];
+        for (int i = 0; i < m; i++) {
+            p[i] = random.nextInt(n);
+            q[i] = random.nextInt(n);
+        }
+
+        // The reference result: both variants must end up with the same number of merges.
+        UnionFind reference = new UnionFind(n);
+        int merges = 0;
+        for (int i = 0; i < m; i++)
+            if (!reference.connected(p[i], q[i])) {
+                reference.union(p[i], q[i]);
+                merges++;
+            }
+
+        System.out.printf("%d elements, %d unions, %d merges%n", n, m, merges);
+        System.out.printf("%8s %16s %16s%n", "threads", "locked (Mops/s)", "lock-free (Mops/s)");
+        for (int threads : THREADS) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            double locked = measure(pool, threads, p, q, merges, () -> lockedUnionFind(n));
+            double lockFree = measure(pool, threads, p, q, merges, () -> lockFreeUnionFind(n));
+            pool.shutdown();
+            System.out.printf("%8d %16.1f %16.1f%n", threads, locked, lockFree);
+        }
+    }
+
+    private interface Unions {
+        boolean union(int p, int q);
+    }
+
+    private interface Factory {
+        Unions create();
+    }
+
+    private static Unions lockedUnionFind(int n) {
+        UnionFind uf = new UnionFind(n);
+        return (p, q) -> {
+            synchronized (uf) {
+                if (uf.connected(p, q))
+                    return false;
+                uf.union(p, q);
+                return true;
+            }
+        };
+    }
+
+    private static Unions lockFreeUnionFind(int n) {
+        return new ConcurrentUnionFind(n)::union;
+    }
+
+    // Returns the best throughput over the timed rounds, in millions of unions per second.
+    private static double measure(ExecutorService pool, int threads, int[] p, int[] q, int merges, Factory factory)
+            throws Exception {
+        double best = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            Unions uf = factory.create();
+            long start = System.nanoTime();
+            int merged = run(pool, threads, p, q, uf);
+            long elapsed = System.nanoTime() - start;
+
+            if (merged != merges)
+                throw new IllegalStateException("Expected " + merges + " merges but got " + merged);
+            if (round >= WARMUP_ROUNDS)
+                best = Math.max(best, p.length / (elapsed / 1e3));
+        }
+        return best;
+    }
+
+    // Every thread merges its own contiguous share of the edges.
+    private static int run(ExecutorService pool, int threads, int[] p, int[] q, Unions uf) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int from = (int) ((long) p.length * t / threads);
+            int to = (int) ((long) p.length * (t + 1) / threads);
+            results.add(pool.submit(() -> {
+                int merged = 0;
+                for (int i = from; i < to; i++)
+                    if (uf.union(p[i], q[i]))
+                        merged++;
+                return merged;
+            }));
+        }
+
+        int merged = 0;
+        for (Future<Integer> result : results)
+            merged += result.get();
+        return merged;
+    }
+}
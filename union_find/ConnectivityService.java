@@ -0,0 +1,162 @@
+package union_find;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// A long-running connectivity index over a stream of union events, on top of UnionFind.
+// Writers take the write lock and use UnionFind's compressing find. Readers share the read lock and only follow
+// parent links without writing them, so any number of connected and size queries can run at the same time.
+// The universe grows on demand: an event naming an element past the end adds it, and the arrays grow by doubling, so
+// growing is amortized constant time per element instead of rebuilding the sets.
+// Component count, largest component and the number of events applied are kept up to date on every union, so reading
+// them needs no lock.
+public class ConnectivityService {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int RESIZING_FACTOR = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final UnionFind sets;
+    // The UnionFind may have more slots than elements, the extra ones are singletons no event has named yet.
+    private int capacity;
+    private volatile int elements;
+    private volatile int components;
+    private volatile int largestComponent;
+    private volatile long epoch;
+
+    public ConnectivityService() {
+        this(0);
+    }
+
+    // Starts with elements 0 to n - 1, each in its own component.
+    public ConnectivityService(int n) {
+        capacity = Math.max(n, DEFAULT_CAPACITY);
+        sets = new UnionFind(capacity);
+        elements = n;
+        components = n;
+        largestComponent = n > 0 ? 1 : 0;
+    }
+
+    // Adds a new element in its own component and returns it.
+    public int addElement() {
+        lock.writeLock().lock();
+        try {
+            ensureElements(elements + 1);
+            return elements - 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Makes sure elements 0 to n - 1 exist, adding the missing ones as singletons.
+    public void grow(int n) {
+        lock.writeLock().lock();
+        try {
+            ensureElements(n);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Merges the components of p and q, adding p and q if they don't exist yet. Returns whether they were merged.
+    public boolean union(int p, int q) {
+        lock.writeLock().lock();
+        try {
+            epoch++;
+            return link(p, q);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applies a batch of union events, p[i] with q[i] for i < count, under a single acquisition of the lock.
+    // Returns the number of events that merged two components.
+    public int unionAll(int[] p, int[] q, int count) {
+        lock.writeLock().lock();
+        try {
+            int merged = 0;
+            for (int i = 0; i < count; i++)
+                if (link(p[i], q[i]))
+                    merged++;
+            epoch += count;
+            return merged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean connected(int p, int q) {
+        lock.readLock().lock();
+        try {
+            return root(p) == root(q);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of elements in p's component.
+    public int componentSize(int p) {
+        lock.readLock().lock();
+        try {
+            return sets.size[root(p)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int elements() {
+        return elements;
+    }
+
+    public int components() {
+        return components;
+    }
+
+    public int largestComponent() {
+        return largestComponent;
+    }
+
+    // Number of union events applied so far, including the ones that didn't merge anything.
+    public long epoch() {
+        return epoch;
+    }
+
+    private boolean link(int p, int q) {
+        if (p < 0 || q < 0)
+            throw new IllegalArgumentException("Elements must be non-negative, got " + p + " and " + q);
+        ensureElements(Math.max(p, q) + 1);
+
+        if (!sets.union(p, q))
+            return false;
+
+        components--;
+        int size = sets.size[sets.find(p)];
+        if (size > largestComponent)
+            largestComponent = size;
+        return true;
+    }
+
+    private void ensureElements(int n) {
+        if (n <= elements)
+            return;
+
+        if (n > capacity) {
+            capacity = Math.max(n, RESIZING_FACTOR * capacity);
+            sets.grow(capacity);
+        }
+        components += n - elements;
+        if (largestComponent == 0)
+            largestComponent = 1;
+        elements = n;
+    }
+
+    // Follows parent links up to the root without compressing them, which is safe while other readers do the same.
+    private int root(int p) {
+        if (p < 0 || p >= elements)
+            throw new IllegalArgumentException("Element " + p + " does not exist");
+
+        int[] id = sets.id;
+        while (p != id[p])
+            p = id[p];
+        return p;
+    }
+}
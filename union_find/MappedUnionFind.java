@@ -0,0 +1,283 @@
+package union_find;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A union-find over up to MAX_ELEMENTS elements, about 2^57, indexed by long, whose arrays live in a memory-mapped file
+// instead of the heap. The limit is the number of mappings an array of them can hold, well under the 2^63 / 9 elements
+// that a file length can address.
+// The OS pages the arrays in and out, so the universe can be far larger than the heap and the GC never scans it, and the
+// structure can be checkpointed and reopened between runs.
+// Parent links are stored as parent + 1, with 0 meaning the element is a root. A new file is all zeros, i.e. every
+// element in its own set, so creating it writes nothing and the file stays sparse until elements are linked.
+// Unions are by rank, a byte per element, and find does path halving, which writes at most one link per step.
+// Not thread-safe, like UnionFind. File layout, little-endian:
+//   header   magic "UFND", version, flags (1 = modified since the last checkpoint), unused int, n (long), count (long)
+//   parents  n longs
+//   ranks    n bytes
+public class MappedUnionFind implements AutoCloseable {
+    private static final int MAGIC = 0x444e4655;
+    private static final int VERSION = 1;
+    private static final int DIRTY = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAGS_OFFSET = 8;
+    private static final int COUNT_OFFSET = 24;
+    // A single mapping can't exceed 2 GB, so each array is split into chunks of 2^27 values.
+    private static final int CHUNK_SHIFT = 27;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+    // Each element takes 9 bytes of the file, and each chunk of elements a parents and a ranks mapping.
+    public static final long MAX_ELEMENTS = Math.min((Long.MAX_VALUE - HEADER_BYTES) / 9,
+            (long) (Integer.MAX_VALUE / 2) << CHUNK_SHIFT);
+
+    private final Path path;
+    private final long n;
+    private final MappedByteBuffer header;
+    private final LongBuffer[] parents;
+    private final ByteBuffer[] ranks;
+    private final MappedByteBuffer[] mappings;
+    private long count;
+    private boolean dirty;
+
+    private MappedUnionFind(Path path, FileChannel channel, long n) throws IOException {
+        this.path = path;
+        this.n = n;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        int parentChunks = chunks(n), rankChunks = chunks(n);
+        parents = new LongBuffer[parentChunks];
+        ranks = new ByteBuffer[rankChunks];
+        mappings = new MappedByteBuffer[parentChunks + rankChunks];
+        long ranksPosition = HEADER_BYTES + 8 * n;
+        for (int c = 0; c < parentChunks; c++) {
+            long size = Math.min(n - ((long) c << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            mappings[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + ((long) c << CHUNK_SHIFT) * 8, size * 8);
+            parents[c] = mappings[c].order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        for (int c = 0; c < rankChunks; c++) {
+            long size = Math.min(n - ((long) c << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            mappings[parentChunks + c] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    ranksPosition + ((long) c << CHUNK_SHIFT), size);
+            ranks[c] = mappings[parentChunks + c];
+        }
+    }
+
+    // Creates a file for elements 0 to n - 1, each in its own set. Fails if the file already exists.
+    public static MappedUnionFind create(Path path, long n) throws IOException {
+        if (n < 0 || n > MAX_ELEMENTS)
+            throw new IllegalArgumentException("Number of elements must be between 0 and " + MAX_ELEMENTS + ", got "
+                    + n);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.SPARSE)) {
+            // Writing the last byte sets the length, and the OS fills the rest with zeros lazily.
+            long length = HEADER_BYTES + 9 * n;
+            channel.write(ByteBuffer.allocate(1), length - 1);
+
+            MappedUnionFind uf = new MappedUnionFind(path, channel, n);
+            uf.header.putInt(0, MAGIC).putInt(4, VERSION).putLong(16, n);
+            uf.count = n;
+            // Nothing is dirty yet, but the header still has to reach the file.
+            uf.dirty = true;
+            uf.checkpoint();
+            return uf;
+        }
+    }
+
+    // Reopens a file written by create. If the last run didn't checkpoint, the links it wrote are all kept, since every
+    // single write leaves a valid forest, but the number of sets is recounted.
+    public static MappedUnionFind open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(bytes, 0);
+            if (bytes.getInt(0) != MAGIC || bytes.getInt(4) != VERSION)
+                throw new IOException("Not a union-find file: " + path);
+            long n = bytes.getLong(16);
+            if (n < 0 || n > MAX_ELEMENTS)
+                throw new IOException("Corrupt union-find file, with " + n + " elements: " + path);
+            if (Files.size(path) < HEADER_BYTES + 9 * n)
+                throw new IOException("Truncated union-find file: " + path);
+
+            MappedUnionFind uf = new MappedUnionFind(path, channel, n);
+            if ((bytes.getInt(FLAGS_OFFSET) & DIRTY) == 0) {
+                uf.count = bytes.getLong(COUNT_OFFSET);
+            } else {
+                for (long i = 0; i < n; i++)
+                    if (uf.link(i) == 0)
+                        uf.count++;
+                uf.dirty = true;
+                uf.checkpoint();
+            }
+            return uf;
+        }
+    }
+
+    public void union(long p, long q) {
+        p = find(p);
+        q = find(q);
+
+        if (p == q)
+            return;
+
+        markDirty();
+        int rankP = rank(p), rankQ = rank(q);
+        if (rankP > rankQ) {
+            setLink(q, p + 1);
+        } else {
+            setLink(p, q + 1);
+            if (rankP == rankQ)
+                setRank(q, rankQ + 1);
+        }
+        count--;
+    }
+
+    public long find(long p) {
+        if (p < 0 || p >= n)
+            throw new IndexOutOfBoundsException("Element " + p + " is not between 0 and " + (n - 1));
+
+        while (true) {
+            long parent = parent(p);
+            if (parent == p)
+                return p;
+
+            long grandparent = parent(parent);
+            if (grandparent != parent) {
+                markDirty();
+                setLink(p, grandparent + 1);
+            }
+            p = grandparent;
+        }
+    }
+
+    public boolean connected(long p, long q) {
+        return find(p) == find(q);
+    }
+
+    // Number of elements.
+    public long size() {
+        return n;
+    }
+
+    // Number of sets.
+    public long count() {
+        return count;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // Writes every change to the file, so that open sees this exact state even if the process dies afterwards.
+    public void checkpoint() {
+        if (!dirty)
+            return;
+
+        for (MappedByteBuffer mapping : mappings)
+            mapping.force();
+        header.putLong(COUNT_OFFSET, count);
+        header.putInt(FLAGS_OFFSET, 0);
+        header.force();
+        dirty = false;
+    }
+
+    // Checkpoints. The mappings themselves are released when the instance is garbage collected.
+    @Override
+    public void close() {
+        checkpoint();
+    }
+
+    // The header is flagged before the first change after a checkpoint, so a crash in between is detected by open.
+    private void markDirty() {
+        if (dirty)
+            return;
+        header.putInt(FLAGS_OFFSET, DIRTY);
+        header.force();
+        dirty = true;
+    }
+
+    private long parent(long p) {
+        long link = link(p);
+        return link == 0 ? p : link - 1;
+    }
+
+    private long link(long p) {
+        return parents[(int) (p >>> CHUNK_SHIFT)].get((int) (p & CHUNK_MASK));
+    }
+
+    private void setLink(long p, long link) {
+        parents[(int) (p >>> CHUNK_SHIFT)].put((int) (p & CHUNK_MASK), link);
+    }
+
+    private int rank(long p) {
+        return ranks[(int) (p >>> CHUNK_SHIFT)].get((int) (p & CHUNK_MASK));
+    }
+
+    private void setRank(long p, int rank) {
+        ranks[(int) (p >>> CHUNK_SHIFT)].put((int) (p & CHUNK_MASK), (byte) rank);
+    }
+
+    private static int chunks(long count) {
+        return (int) ((count + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("union-find", ".uf");
+        Files.delete(path);
+
+        // The file length must fit in a long.
+        try {
+            create(path, Long.MAX_VALUE / 8);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            assert !Files.exists(path);
+        }
+
+        // A file that is closed right after being created reopens with every element in its own set.
+        try (MappedUnionFind uf = create(path, 10)) {
+            assert uf.count() == 10;
+        }
+        try (MappedUnionFind uf = open(path)) {
+            assert uf.count() == 10;
+
+            assert !uf.connected(0, 9);
+        } finally {
+            Files.delete(path);
+        }
+
+        try (MappedUnionFind uf = create(path, 10)) {
+            assert !uf.connected(0, 1);
+
+            uf.union(0, 1);
+            uf.union(2, 3);
+            uf.union(1, 3);
+
+            assert uf.connected(0, 2);
+
+            assert uf.count() == 7;
+        }
+
+        // The sets survive reopening, and the reopened structure can keep going.
+        try (MappedUnionFind uf = open(path)) {
+            assert uf.connected(0, 3);
+
+            assert !uf.connected(0, 4);
+
+            assert uf.count() == 7;
+
+            uf.union(4, 9);
+
+            assert uf.connected(9, 4);
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package union_find;
+
+// A union-find whose unions can be undone in reverse order, for offline algorithms that explore alternatives.
+// Unions are by size and find doesn't compress paths, so every union changes exactly one link and one size, and trees
+// stay at most log n deep. The roots linked by each union are kept on a stack: rolling back to a snapshot pops them and
+// restores both values, in constant time per union.
+public class RollbackUnionFind {
+    private final int[] id;
+    private final int[] size;
+    // The root that each union put under another one, most recent last.
+    private final int[] linked;
+    private int unions;
+
+    public RollbackUnionFind(int n) {
+        id = new int[n];
+        size = new int[n];
+        linked = new int[Math.max(n - 1, 0)];
+        for (int i = 0; i < n; i++) {
+            id[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    // Merges the sets of p and q. Returns whether they were in different sets.
+    public boolean union(int p, int q) {
+        p = find(p);
+        q = find(q);
+
+        if (p == q)
+            return false;
+
+        if (size[p] > size[q]) {
+            int swap = p;
+            p = q;
+            q = swap;
+        }
+        id[p] = q;
+        size[q] += size[p];
+        linked[unions++] = p;
+        return true;
+    }
+
+    public int find(int p) {
+        while (p != id[p])
+            p = id[p];
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    // Number of sets.
+    public int count() {
+        return id.length - unions;
+    }
+
+    // Returns a snapshot to roll back to, valid as long as no earlier snapshot is rolled back to.
+    public int snapshot() {
+        return unions;
+    }
+
+    // Undoes every union since the snapshot was taken.
+    public void rollback(int snapshot) {
+        while (unions > snapshot) {
+            int p = linked[--unions];
+            size[id[p]] -= size[p];
+            id[p] = p;
+        }
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        RollbackUnionFind uf = new RollbackUnionFind(10);
+
+        uf.union(0, 1);
+
+        int snapshot = uf.snapshot();
+
+        uf.union(1, 2);
+        uf.union(3, 4);
+
+        assert uf.connected(0, 2);
+
+        assert uf.count() == 7;
+
+        uf.rollback(snapshot);
+
+        assert uf.connected(0, 1);
+
+        assert !uf.connected(0, 2);
+
+        assert !uf.connected(3, 4);
+
+        assert uf.count() == 9;
+    }
+}
@@ -1,26 +1,33 @@
 package union_find;
 
+import java.util.Arrays;
+
 public class UnionFind {
     protected int[] id;
     protected int[] size;
-    private int[] toCompress;
+    private final Compression compression;
 
     public UnionFind(int n) {
+        this(n, Compression.FULL);
+    }
+
+    public UnionFind(int n, Compression compression) {
+        this.compression = compression;
         id = new int[n];
         size = new int[n];
-        toCompress = new int[n];
         for (int i = 0; i < n; i++) {
             id[i] = i;
             size[i] = 1;
         }
     }
 
-    public void union(int p, int q) {
+    // Merges the sets of p and q. Returns whether they were in different sets.
+    public boolean union(int p, int q) {
         p = find(p);
         q = find(q);
 
         if (p == q)
-            return;
+            return false;
 
         if (size[p] > size[q]) {
             id[q] = p;
@@ -29,20 +36,25 @@ public class UnionFind {
             id[p] = q;
             size[q] += size[p];
         }
+        return true;
     }
 
     public int find(int p) {
-        int i = 0;
-        
-        while (p != id[p]) {
-            toCompress[i++] = p;
-            p = id[p];
-        }
+        return compression.find(id, p);
+    }
 
-        for (int j = 0; j < i; j++)
-            id[j] = p;
+    // Adds elements up to n - 1 as singletons, keeping the existing sets. Does nothing if there are already n elements.
+    public void grow(int n) {
+        int old = id.length;
+        if (n <= old)
+            return;
 
-        return p;
+        id = Arrays.copyOf(id, n);
+        size = Arrays.copyOf(size, n);
+        for (int i = old; i < n; i++) {
+            id[i] = i;
+            size[i] = 1;
+        }
     }
 
     public boolean connected(int p, int q) {
@@ -59,5 +71,13 @@ public class UnionFind {
         assert uf.connected(0, 1);
 
         assert uf.find(0) == 1;
+
+        uf.grow(12);
+
+        assert uf.connected(0, 1);
+
+        uf.union(11, 0);
+
+        assert uf.connected(1, 11);
     }
 }
@@ -0,0 +1,234 @@
+package union_find;
+
+import union_find.specific_canonical_element.UnionFindSpecificCanonicalElement;
+import union_find.successor_with_delete.UnionFindSuccessorWithDelete;
+
+import java.util.Random;
+
+// Compares the Compression strategies of UnionFind and UnionFindSpecificCanonicalElement over workloads with different
+// path shapes:
+//  . random: unions and connected queries between uniformly random elements.
+//  . adversarial: unions that build binomial trees, the deepest union by size allows, then queries on every element.
+//  . skewed: one endpoint of every operation is drawn from a heavy-tailed distribution, so a few hubs take most of them.
+// and of UnionFindSuccessorWithDelete over:
+//  . successor: removals of random elements, interleaved with successor queries, so that runs of removed elements grow.
+// Each workload is a fixed sequence of operations, replayed on a fresh UnionFind for every round. The first rounds are
+// untimed so that the code is compiled, and the best of the timed rounds is reported.
+// Run with: java union_find.UnionFindBenchmark [elements]
+public class UnionFindBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        Random random = new Random(42);
+
+        UnionWorkload[] unions = {random(n, random), adversarial(n, random), skewed(n, random)};
+        Workload[] workloads = new Workload[2 * unions.length + 1];
+        for (int i = 0; i < unions.length; i++) {
+            workloads[i] = unions[i];
+            workloads[unions.length + i] = unions[i].on("canonical", UnionFindBenchmark::canonicalElement);
+        }
+        workloads[2 * unions.length] = successor(n, random);
+
+        System.out.printf("%d elements, best of %d rounds in ms%n", n, ROUNDS);
+        System.out.printf("%-24s", "workload");
+        for (Compression compression : Compression.values())
+            System.out.printf("%12s", compression);
+        System.out.println();
+
+        for (Workload workload : workloads) {
+            System.out.printf("%-24s", workload.name);
+            long expected = -1;
+            for (Compression compression : Compression.values()) {
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    long checksum = workload.run(n, compression);
+                    long elapsed = System.nanoTime() - start;
+
+                    // Every strategy must answer the queries the same way.
+                    if (expected == -1)
+                        expected = checksum;
+                    else if (checksum != expected)
+                        throw new IllegalStateException(compression + " answered " + workload.name + " differently");
+                    if (round >= WARMUP_ROUNDS)
+                        best = Math.min(best, elapsed);
+                }
+                System.out.printf("%12.1f", best / 1e6);
+            }
+            System.out.println();
+        }
+    }
+
+    // The operations the union workloads need, so that they can be replayed on either union-find.
+    private interface Sets {
+        void union(int p, int q);
+
+        boolean connected(int p, int q);
+    }
+
+    private interface SetsFactory {
+        Sets create(int n, Compression compression);
+    }
+
+    private static Sets unionFind(int n, Compression compression) {
+        UnionFind uf = new UnionFind(n, compression);
+        return new Sets() {
+            public void union(int p, int q) {
+                uf.union(p, q);
+            }
+
+            public boolean connected(int p, int q) {
+                return uf.connected(p, q);
+            }
+        };
+    }
+
+    private static Sets canonicalElement(int n, Compression compression) {
+        UnionFindSpecificCanonicalElement uf = new UnionFindSpecificCanonicalElement(n, compression);
+        return new Sets() {
+            public void union(int p, int q) {
+                uf.union(p, q);
+            }
+
+            public boolean connected(int p, int q) {
+                return uf.connected(p, q);
+            }
+        };
+    }
+
+    private static abstract class Workload {
+        final String name;
+
+        Workload(String name) {
+            this.name = name;
+        }
+
+        // Returns a checksum of the answers to the queries.
+        abstract long run(int n, Compression compression);
+    }
+
+    // A sequence of operations: union(p[i], q[i]) if isUnion[i], connected(p[i], q[i]) otherwise.
+    private static class UnionWorkload extends Workload {
+        private final int[] p, q;
+        private final boolean[] isUnion;
+        private final SetsFactory sets;
+
+        UnionWorkload(String name, int[] p, int[] q, boolean[] isUnion, SetsFactory sets) {
+            super(name);
+            this.p = p;
+            this.q = q;
+            this.isUnion = isUnion;
+            this.sets = sets;
+        }
+
+        // The same operations, replayed on another union-find.
+        UnionWorkload on(String prefix, SetsFactory sets) {
+            return new UnionWorkload(prefix + " " + name, p, q, isUnion, sets);
+        }
+
+        // Returns the number of connected queries that answered true.
+        long run(int n, Compression compression) {
+            Sets uf = sets.create(n, compression);
+            long connected = 0;
+            for (int i = 0; i < p.length; i++) {
+                if (isUnion[i])
+                    uf.union(p[i], q[i]);
+                else if (uf.connected(p[i], q[i]))
+                    connected++;
+            }
+            return connected;
+        }
+    }
+
+    // A sequence of operations: remove(x[i]) if isRemove[i], findSuccessor(x[i]) otherwise.
+    private static class SuccessorWorkload extends Workload {
+        private final int[] x;
+        private final boolean[] isRemove;
+
+        SuccessorWorkload(String name, int[] x, boolean[] isRemove) {
+            super(name);
+            this.x = x;
+            this.isRemove = isRemove;
+        }
+
+        // Returns the sum of the successors found.
+        long run(int n, Compression compression) {
+            UnionFindSuccessorWithDelete set = new UnionFindSuccessorWithDelete(n, compression);
+            long sum = 0;
+            for (int i = 0; i < x.length; i++) {
+                if (isRemove[i])
+                    set.remove(x[i]);
+                else
+                    sum += set.findSuccessor(x[i]);
+            }
+            return sum;
+        }
+    }
+
+    // 2n operations, half unions and half queries, interleaved at random.
+    private static UnionWorkload random(int n, Random random) {
+        int m = 2 * n;
+        int[] p = new int[m], q = new int[m];
+        boolean[] isUnion = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            p[i] = random.nextInt(n);
+            q[i] = random.nextInt(n);
+            isUnion[i] = random.nextBoolean();
+        }
+        return new UnionWorkload("random", p, q, isUnion, UnionFindBenchmark::unionFind);
+    }
+
+    // Merges trees of equal size pairwise, level by level, so that every tree is a binomial tree of depth log n, and then
+    // queries every element against a random one.
+    private static UnionWorkload adversarial(int n, Random random) {
+        int m = 2 * n;
+        int[] p = new int[m], q = new int[m];
+        boolean[] isUnion = new boolean[m];
+        int count = 0;
+
+        for (int step = 1; step < n; step *= 2)
+            for (int i = 0; i + step < n; i += 2 * step) {
+                p[count] = i;
+                q[count] = i + step;
+                isUnion[count++] = true;
+            }
+
+        // With ties, union puts p under q, so element 0 is at the bottom of the longest path, and the first queries
+        // walk the longest paths before compression shortens them.
+        for (int i = 0; count < m; i = (i + 1) % n) {
+            p[count] = i;
+            q[count++] = random.nextInt(n);
+        }
+
+        return new UnionWorkload("adversarial", p, q, isUnion, UnionFindBenchmark::unionFind);
+    }
+
+    // Like random, but p is drawn with a density that grows towards 0, so that low elements take most of the operations.
+    private static UnionWorkload skewed(int n, Random random) {
+        int m = 2 * n;
+        int[] p = new int[m], q = new int[m];
+        boolean[] isUnion = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            double x = random.nextDouble();
+            p[i] = (int) (n * x * x * x * x);
+            q[i] = random.nextInt(n);
+            isUnion[i] = random.nextBoolean();
+        }
+        return new UnionWorkload("skewed", p, q, isUnion, UnionFindBenchmark::unionFind);
+    }
+
+    // 2n operations, half removals and half successor queries, interleaved at random. The last element is never removed
+    // or queried, since the successor of x is looked up from x + 1.
+    private static Workload successor(int n, Random random) {
+        int m = 2 * n;
+        int[] x = new int[m];
+        boolean[] isRemove = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            x[i] = random.nextInt(n - 1);
+            isRemove[i] = random.nextBoolean();
+        }
+        return new SuccessorWorkload("successor", x, isRemove);
+    }
+}
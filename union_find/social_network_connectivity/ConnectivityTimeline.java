@@ -0,0 +1,212 @@
+package union_find.social_network_connectivity;
+
+import union_find.UnionFind;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Answers many questions about when members got connected, from a log read once.
+// The log is replayed into a union-find by size without path compression, and every root link keeps the time it was
+// made. Links only ever happen at roots, so the times grow from any node up to its root, and the trees are at most
+// log n deep. Then:
+//  . p and q got connected at the link that first put them in the same tree. Repeatedly moving up from whichever of
+//    the two was linked earlier meets at their lowest common ancestor, and the last link crossed is that time.
+//  . Each root also keeps the links it received in time order, with the size of its component after each one, so the
+//    time p's component reached a size is a binary search in each of p's O(log n) ancestors.
+// Most links of a long log are redundant. When the log is much longer than the number of members, it's split into
+// chunks that are filtered in parallel, each with its own union-find: a log that only connects members already
+// connected earlier in its chunk is also redundant in the whole log, so only a spanning forest per chunk is replayed.
+// Only CONNECT logs are replayed, other kinds are ignored. Logs must be sorted by timestamp. Questions about members
+// that were always connected, i.e. the same member or size 1, answer LocalDateTime.MIN, and questions about members
+// that never got connected answer LocalDateTime.MAX.
+public class ConnectivityTimeline {
+    private static final int ROOT = Integer.MAX_VALUE;
+
+    private final int n;
+    private final int[] parent;
+    // Index in linkTimes of the link that made each member a child of its parent, or ROOT.
+    private final int[] linkTime;
+    private final LocalDateTime[] linkTimes;
+    // Size of the parent's component right after each member was linked to it.
+    private final int[] sizeAfter;
+    // The children of each member in link order are children[childOffsets[v]..childOffsets[v + 1]), and childIndex is
+    // the position of each member among its parent's children.
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] childIndex;
+
+    public ConnectivityTimeline(List<Log> logs, int numberOfMembers) {
+        n = numberOfMembers;
+        parent = new int[n];
+        linkTime = new int[n];
+        sizeAfter = new int[n];
+        int[] size = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            linkTime[v] = ROOT;
+            size[v] = 1;
+        }
+
+        // At most n - 1 links succeed.
+        linkTimes = new LocalDateTime[Math.max(n - 1, 0)];
+        int[] linked = new int[linkTimes.length];
+        int links = 0;
+        for (Log log : filter(logs, n)) {
+            if (log.kind() != Log.Kind.CONNECT)
+                continue;
+
+            int p = root(log.p());
+            int q = root(log.q());
+            if (p == q)
+                continue;
+
+            if (size[p] > size[q]) {
+                int swap = p;
+                p = q;
+                q = swap;
+            }
+            parent[p] = q;
+            size[q] += size[p];
+            linkTime[p] = links;
+            sizeAfter[p] = size[q];
+            linkTimes[links] = log.timestamp();
+            linked[links++] = p;
+        }
+
+        // Groups the links by parent with a counting sort, which keeps them in time order.
+        childOffsets = new int[n + 1];
+        children = new int[links];
+        childIndex = new int[n];
+        for (int i = 0; i < links; i++)
+            childOffsets[parent[linked[i]] + 1]++;
+        for (int v = 0; v < n; v++)
+            childOffsets[v + 1] += childOffsets[v];
+        int[] next = new int[n];
+        for (int i = 0; i < links; i++) {
+            int v = linked[i];
+            int w = parent[v];
+            childIndex[v] = childOffsets[w] + next[w]++;
+            children[childIndex[v]] = v;
+        }
+    }
+
+    // Earliest time at which p and q were connected.
+    public LocalDateTime whenConnected(int p, int q) {
+        if (p == q)
+            return LocalDateTime.MIN;
+
+        int last = -1;
+        while (p != q) {
+            if (linkTime[p] < linkTime[q]) {
+                last = linkTime[p];
+                p = parent[p];
+            } else if (linkTime[q] != ROOT) {
+                last = linkTime[q];
+                q = parent[q];
+            } else {
+                // Both are roots of different trees.
+                return LocalDateTime.MAX;
+            }
+        }
+        return linkTimes[last];
+    }
+
+    // Earliest time at which p's component had at least k members.
+    public LocalDateTime whenReached(int p, int k) {
+        if (k <= 1)
+            return LocalDateTime.MIN;
+
+        // Looks at the links each ancestor received while p was in its tree, which start with the link that put p
+        // there. Sizes only grow with time, so the first ancestor with a big enough component has the answer.
+        int from = childOffsets[p];
+        for (int a = p; ; ) {
+            int end = childOffsets[a + 1];
+            if (from < end && sizeAfter[children[end - 1]] >= k) {
+                int lo = from, hi = end - 1;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (sizeAfter[children[mid]] >= k)
+                        hi = mid;
+                    else
+                        lo = mid + 1;
+                }
+                return linkTimes[linkTime[children[lo]]];
+            }
+
+            if (linkTime[a] == ROOT)
+                return LocalDateTime.MAX;
+            from = childIndex[a];
+            a = parent[a];
+        }
+    }
+
+    // Earliest time at which all members were connected.
+    public LocalDateTime whenAllConnected() {
+        return n == 0 ? LocalDateTime.MIN : whenReached(0, n);
+    }
+
+    private int root(int p) {
+        while (p != parent[p])
+            p = parent[p];
+        return p;
+    }
+
+    // Drops the logs that are redundant within their chunk, in parallel. Filtering costs a union-find of n members per
+    // chunk, so it's only worth it for chunks much longer than n.
+    private static List<Log> filter(List<Log> logs, int n) {
+        int chunks = (int) Math.min(Runtime.getRuntime().availableProcessors(), logs.size() / (4L * Math.max(n, 1)));
+        if (chunks <= 1)
+            return logs;
+
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    List<Log> chunk = logs.subList((int) ((long) logs.size() * c / chunks),
+                            (int) ((long) logs.size() * (c + 1) / chunks));
+                    UnionFind uf = new UnionFind(n);
+                    List<Log> kept = new ArrayList<>();
+                    for (Log log : chunk)
+                        if (log.kind() == Log.Kind.CONNECT && !uf.connected(log.p(), log.q())) {
+                            uf.union(log.p(), log.q());
+                            kept.add(log);
+                        }
+                    return kept;
+                })
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Log> logs = new ArrayList<>();
+        logs.add(new Log(start, 0, 1, Log.Kind.QUERY));
+        logs.add(new Log(start.plusMinutes(1), 0, 1, Log.Kind.DISCONNECT));
+        logs.add(new Log(start.plusMinutes(2), 0, 1));
+        logs.add(new Log(start.plusMinutes(3), 2, 3, Log.Kind.QUERY));
+        logs.add(new Log(start.plusMinutes(4), 1, 2));
+        logs.add(new Log(start.plusMinutes(5), 2, 3, Log.Kind.DISCONNECT));
+
+        // Only the CONNECT logs link members.
+        ConnectivityTimeline timeline = new ConnectivityTimeline(logs, 4);
+        assert timeline.whenConnected(0, 1).equals(start.plusMinutes(2));
+
+        assert timeline.whenConnected(0, 2).equals(start.plusMinutes(4));
+
+        assert timeline.whenConnected(2, 3).equals(LocalDateTime.MAX);
+
+        assert timeline.whenReached(3, 2).equals(LocalDateTime.MAX);
+
+        // A log long enough to be filtered in chunks, made of repeats of the same mixed log.
+        List<Log> repeated = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            for (Log log : logs)
+                repeated.add(new Log(log.timestamp().plusHours(i), log.p(), log.q(), log.kind()));
+        timeline = new ConnectivityTimeline(repeated, 4);
+        assert timeline.whenConnected(0, 2).equals(start.plusMinutes(4));
+
+        assert timeline.whenAllConnected().equals(LocalDateTime.MAX);
+    }
+}
@@ -0,0 +1,156 @@
+package union_find.social_network_connectivity;
+
+import union_find.RollbackUnionFind;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Offline dynamic connectivity: answers the QUERY events of a log that also has DISCONNECT events, in O(m log m log n).
+// Every friendship is alive over an interval of the queries, from the first query after it was made to the last one
+// before it was broken. The intervals are spread over a segment tree on the queries, so that each one lands in
+// O(log m) nodes. A depth-first walk of the tree then unions a node's friendships on the way down and rolls them back
+// on the way up, so at each leaf the union-find holds exactly the friendships alive at that query.
+// A friendship made several times stays alive until it was broken as many times. Breaking one that doesn't exist is
+// ignored.
+public class DynamicConnectivity {
+    private final boolean[] answers;
+
+    // The friendships stored at each node of the segment tree, nodeP/nodeQ[nodeOffsets[v]..nodeOffsets[v + 1]).
+    private int[] nodeOffsets;
+    private int[] nodeP, nodeQ;
+    private int leaves;
+
+    public DynamicConnectivity(List<Log> logs, int numberOfMembers) {
+        int queries = 0;
+        for (Log log : logs)
+            if (log.kind() == Log.Kind.QUERY)
+                queries++;
+        answers = new boolean[queries];
+        if (queries == 0)
+            return;
+
+        // Turns the log into intervals of queries [from, to] during which each friendship is alive.
+        int m = logs.size();
+        int[] fromQuery = new int[m], toQuery = new int[m], intervalP = new int[m], intervalQ = new int[m];
+        int intervals = 0;
+        // For each friendship, how many times it's currently made and the query from which it has been alive.
+        Map<Long, int[]> alive = new HashMap<>();
+        int query = 0;
+        for (Log log : logs) {
+            int p = Math.min(log.p(), log.q()), q = Math.max(log.p(), log.q());
+            long key = (long) p << 32 | q;
+            switch (log.kind()) {
+                case CONNECT:
+                    // Members are always connected to themselves.
+                    if (p == q)
+                        break;
+                    int[] made = alive.computeIfAbsent(key, k -> new int[2]);
+                    if (made[0]++ == 0)
+                        made[1] = query;
+                    break;
+                case DISCONNECT:
+                    int[] broken = alive.get(key);
+                    if (broken == null)
+                        break;
+                    if (--broken[0] == 0) {
+                        alive.remove(key);
+                        if (broken[1] < query) {
+                            fromQuery[intervals] = broken[1];
+                            toQuery[intervals] = query - 1;
+                            intervalP[intervals] = p;
+                            intervalQ[intervals++] = q;
+                        }
+                    }
+                    break;
+                case QUERY:
+                    query++;
+                    break;
+            }
+        }
+        // Friendships still alive at the end of the log last until the last query.
+        for (Map.Entry<Long, int[]> entry : alive.entrySet()) {
+            if (entry.getValue()[1] < queries) {
+                fromQuery[intervals] = entry.getValue()[1];
+                toQuery[intervals] = queries - 1;
+                intervalP[intervals] = (int) (entry.getKey() >>> 32);
+                intervalQ[intervals++] = (int) (long) entry.getKey();
+            }
+        }
+
+        build(queries, fromQuery, toQuery, intervalP, intervalQ, intervals);
+
+        // Answers the queries in order, with the query pairs read from the log.
+        int[] queryP = new int[queries], queryQ = new int[queries];
+        query = 0;
+        for (Log log : logs)
+            if (log.kind() == Log.Kind.QUERY) {
+                queryP[query] = log.p();
+                queryQ[query++] = log.q();
+            }
+        visit(1, 0, leaves, new RollbackUnionFind(numberOfMembers), queryP, queryQ);
+    }
+
+    // Number of QUERY events in the log.
+    public int queries() {
+        return answers.length;
+    }
+
+    // Whether the members of the i-th QUERY event of the log were connected at that point.
+    public boolean connected(int i) {
+        return answers[i];
+    }
+
+    // Spreads every interval over the nodes of a bottom-up segment tree, in two passes: one counting the friendships
+    // of each node and one placing them.
+    private void build(int queries, int[] fromQuery, int[] toQuery, int[] intervalP, int[] intervalQ, int intervals) {
+        leaves = Integer.highestOneBit(Math.max(queries - 1, 1)) << 1;
+        nodeOffsets = new int[2 * leaves + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            int[] next = pass == 0 ? null : nodeOffsets.clone();
+            for (int i = 0; i < intervals; i++) {
+                for (int l = fromQuery[i] + leaves, r = toQuery[i] + leaves + 1; l < r; l >>= 1, r >>= 1) {
+                    if ((l & 1) == 1)
+                        place(l++, i, next, intervalP, intervalQ);
+                    if ((r & 1) == 1)
+                        place(--r, i, next, intervalP, intervalQ);
+                }
+            }
+            if (pass == 0) {
+                for (int v = 0; v < 2 * leaves; v++)
+                    nodeOffsets[v + 1] += nodeOffsets[v];
+                nodeP = new int[nodeOffsets[2 * leaves]];
+                nodeQ = new int[nodeOffsets[2 * leaves]];
+            }
+        }
+    }
+
+    private void place(int node, int i, int[] next, int[] intervalP, int[] intervalQ) {
+        if (next == null) {
+            nodeOffsets[node + 1]++;
+            return;
+        }
+        nodeP[next[node]] = intervalP[i];
+        nodeQ[next[node]++] = intervalQ[i];
+    }
+
+    // Visits the node covering queries [from, to), with the friendships of all its ancestors already in uf.
+    private void visit(int node, int from, int to, RollbackUnionFind uf, int[] queryP, int[] queryQ) {
+        if (from >= answers.length)
+            return;
+
+        int snapshot = uf.snapshot();
+        for (int i = nodeOffsets[node]; i < nodeOffsets[node + 1]; i++)
+            uf.union(nodeP[i], nodeQ[i]);
+
+        if (to - from == 1) {
+            answers[from] = uf.connected(queryP[from], queryQ[from]);
+        } else {
+            int middle = (from + to) >>> 1;
+            visit(2 * node, from, middle, uf, queryP, queryQ);
+            visit(2 * node + 1, middle, to, uf, queryP, queryQ);
+        }
+
+        uf.rollback(snapshot);
+    }
+}
@@ -2,4 +2,18 @@ package union_find.social_network_connectivity;
 
 import java.time.LocalDateTime;
 
-public record Log(LocalDateTime timestamp, int p, int q) {}
\ No newline at end of file
+// An event of the social network log. Logs without a kind are friendships, as in the original problem.
+public record Log(LocalDateTime timestamp, int p, int q, Kind kind) {
+    public enum Kind {
+        // p and q became friends.
+        CONNECT,
+        // p and q stopped being friends.
+        DISCONNECT,
+        // Asks whether p and q are connected at this point of the log.
+        QUERY
+    }
+
+    public Log(LocalDateTime timestamp, int p, int q) {
+        this(timestamp, p, q, Kind.CONNECT);
+    }
+}
\ No newline at end of file
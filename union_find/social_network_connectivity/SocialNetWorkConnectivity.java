@@ -1,6 +1,10 @@
 package union_find.social_network_connectivity;
 
+import union_find.ConnectivityService;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /*
@@ -10,16 +14,77 @@ connected (i.e., every member is a friend of a friend of a friend ... of a frien
 by timestamp and that friendship is an equivalence relation. The running time of your algorithm should be m log n or
 better and use extra space proportional to n.
  */
+// Stateful client of a ConnectivityService: logs are recorded as they arrive instead of replayed on every question.
+// Every time the largest group of friends grows, the timestamp is kept, so the earliest time any number of members were
+// connected is a binary search over those records.
 public class SocialNetWorkConnectivity {
+    private final ConnectivityService service = new ConnectivityService();
+    // Each time the largest component grew: its new size and when it happened, both increasing.
+    private int[] largestSizes = new int[8];
+    private LocalDateTime[] reachedAt = new LocalDateTime[8];
+    private int records;
+
+    // Logs must be recorded in timestamp order. Only CONNECT logs change the network.
+    public void record(Log log) {
+        if (log.kind() != Log.Kind.CONNECT)
+            return;
+
+        int before = service.largestComponent();
+        service.union(log.p(), log.q());
+        int after = service.largestComponent();
+        if (after <= before)
+            return;
+
+        if (records == largestSizes.length) {
+            largestSizes = Arrays.copyOf(largestSizes, 2 * records);
+            reachedAt = Arrays.copyOf(reachedAt, 2 * records);
+        }
+        largestSizes[records] = after;
+        reachedAt[records++] = log.timestamp();
+    }
+
+    // Earliest time at which numberOfMembers members were all connected, among the logs recorded so far.
+    public LocalDateTime whenWasConnected(int numberOfMembers) {
+        int i = Arrays.binarySearch(largestSizes, 0, records, numberOfMembers);
+        if (i < 0)
+            i = -i - 1;
+        return i < records ? reachedAt[i] : LocalDateTime.MAX;
+    }
+
     public LocalDateTime whenWasConnected(List<Log> logs, int numberOfMembers) {
-        UnionFindNetWork netWork = new UnionFindNetWork(numberOfMembers);
+        ConnectivityService netWork = new ConnectivityService(numberOfMembers);
 
         for (Log log: logs) {
+            if (log.kind() != Log.Kind.CONNECT)
+                continue;
+
             netWork.union(log.p(), log.q());
-            if (netWork.connectedSize == numberOfMembers)
+            if (netWork.largestComponent() == numberOfMembers)
                 return log.timestamp();
         }
 
         return LocalDateTime.MAX;
     }
+
+    // Tests for correctness.
+    public static void main(String[] args) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Log> logs = new ArrayList<>();
+        logs.add(new Log(start, 0, 1, Log.Kind.QUERY));
+        logs.add(new Log(start.plusMinutes(1), 1, 2, Log.Kind.DISCONNECT));
+        logs.add(new Log(start.plusMinutes(2), 0, 1));
+        logs.add(new Log(start.plusMinutes(3), 1, 2));
+
+        SocialNetWorkConnectivity network = new SocialNetWorkConnectivity();
+        assert network.whenWasConnected(logs, 3).equals(start.plusMinutes(3));
+
+        assert network.whenWasConnected(logs.subList(0, 3), 3).equals(LocalDateTime.MAX);
+
+        // Queries and disconnections are not friendships.
+        for (Log log : logs)
+            network.record(log);
+        assert network.whenWasConnected(2).equals(start.plusMinutes(2));
+
+        assert network.whenWasConnected(3).equals(start.plusMinutes(3));
+    }
 }
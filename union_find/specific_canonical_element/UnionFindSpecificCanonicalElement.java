@@ -1,6 +1,6 @@
 package union_find.specific_canonical_element;
 
-import union_find.UnionFind;
+import union_find.Compression;
 
 /*
 Union-find with specific canonical element. Add a method find() to the union-find data type so that
@@ -15,8 +15,14 @@ public class UnionFindSpecificCanonicalElement {
     private int[] id;
     private int[] size;
     private int[] canonicalElement;
+    private final Compression compression;
 
     public UnionFindSpecificCanonicalElement(int n) {
+        this(n, Compression.HALVING);
+    }
+
+    public UnionFindSpecificCanonicalElement(int n, Compression compression) {
+        this.compression = compression;
         id = new int[n];
         size = new int[n];
         canonicalElement = new int[n];
@@ -47,11 +53,7 @@ public class UnionFindSpecificCanonicalElement {
     }
 
     private int findRoot(int i) {
-        while (i != id[i]) {
-            id[i] = id[id[i]];
-            i = id[i];
-        }
-        return i;
+        return compression.find(id, i);
     }
 
     public int find(int i) {
@@ -1,5 +1,7 @@
 package union_find.successor_with_delete;
 
+import union_find.Compression;
+
 /*
 Successor with delete. Given a set of n integers S={0,1,...,n−1} and a sequence of requests of the following form:
 
@@ -13,8 +15,14 @@ public class UnionFindSuccessorWithDelete {
     private int[] size;
     private int[] max;
     private boolean[] removed;
+    private final Compression compression;
 
     public UnionFindSuccessorWithDelete(int n) {
+        this(n, Compression.HALVING);
+    }
+
+    public UnionFindSuccessorWithDelete(int n, Compression compression) {
+        this.compression = compression;
         id = new int[n];
         size = new int[n];
         max = new int[n];
@@ -46,11 +54,7 @@ public class UnionFindSuccessorWithDelete {
     }
 
     private int find(int i) {
-        while (i != id[i]) {
-            id[i] = id[id[i]];
-            i = id[i];
-        }
-        return i;
+        return compression.find(id, i);
     }
 
     private boolean connected(int p, int q) {